@@ -0,0 +1,77 @@
+package com.taskmate.benchmark;
+
+import com.taskmate.TaskmateApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Starts the application against its own in-memory H2 database, with or without a web server,
+ * and seeds it with synthetic tasks.
+ */
+final class BenchmarkContexts {
+
+    static final LocalDateTime SEED_BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final int SEED_BATCH = 10_000;
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        return builder(database).web(WebApplicationType.NONE).run();
+    }
+
+    // Servlet server on a random port; read it back from local.server.port
+    static ConfigurableApplicationContext startWeb(String database, String... properties) {
+        return builder(database)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0")
+                .properties(properties)
+                .run();
+    }
+
+    private static SpringApplicationBuilder builder(String database) {
+        return new SpringApplicationBuilder(TaskmateApplication.class)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN");
+    }
+
+    // Every 10th task is deleted, every 3rd completed, every 7th has no due date; created_at is unique
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        seed(jdbcTemplate, rows, UUID::randomUUID);
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int rows, Supplier<UUID> ids) {
+        String sql = "INSERT INTO tasks (id, title, description, completed, deleted, due_date, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < rows; i++) {
+            Timestamp created = Timestamp.valueOf(SEED_BASE.plusSeconds(i));
+            Timestamp due = i % 7 == 0 ? null : Timestamp.valueOf(SEED_BASE.plusMinutes(i));
+            batch.add(new Object[] {
+                    ids.get(), "Task " + i, "Description for task " + i, i % 3 == 0, i % 10 == 0,
+                    due, created, created
+            });
+            if (batch.size() == SEED_BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmate.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request of the prod profile: launches the extracted jar as a new JVM and polls a
+ * list request until it is answered with 200. Each launch mode runs {@code runs} times; the
+ * autoscaler's view of cold start is the whole interval, JVM start included, so JMH does not fit.
+ *
+ * <p>Arguments: the extracted application jar, the CDS archive recorded from it, the runs per mode.
+ * {@code ./gradlew startupBenchmark} builds both and passes them.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String jar = args[0];
+        String archive = args[1];
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        report("jar", jar, runs);
+        report("jar + AOT", jar, runs, "-Dspring.aot.enabled=true");
+        report("jar + AOT + CDS", jar, runs, "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive);
+    }
+
+    private static void report(String mode, String jar, int runs, String... jvmArgs) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = timeToFirstRequest(jar, jvmArgs);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-16s median %5d ms   min %5d ms   max %5d ms%n",
+                mode, millis[runs / 2], millis[0], millis[runs - 1]);
+    }
+
+    private static long timeToFirstRequest(String jar, String... jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(List.of(jvmArgs));
+        command.addAll(List.of("-jar", jar, "--spring.profiles.active=prod", "--server.port=" + port));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/tasks?size=1"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No response within " + STARTUP_TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.taskmate.benchmark;
+
+import com.taskmate.entity.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * INSERT throughput into a table that already holds millions of rows, with random (v4) against
+ * time-ordered (v7) primary keys. Random keys scatter every insert across the primary key index;
+ * v7 keys append at its right edge. Reported per inserted row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TaskInsertBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final String INSERT = "INSERT INTO tasks (id, title, description, completed, deleted, due_date, created_at, updated_at)"
+            + " VALUES (?, ?, ?, FALSE, FALSE, NULL, ?, ?)";
+
+    @Param({"1000000", "4000000"})
+    public int rows;
+
+    @Param({"random", "v7"})
+    public String keys;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private Supplier<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = keys.equals("v7") ? UuidV7::next : UUID::randomUUID;
+        context = BenchmarkContexts.start("insert_" + keys + "_" + rows);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkContexts.seed(jdbcTemplate, rows, ids);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] insertBatch() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new Object[] {ids.get(), "Inserted", "Inserted by the benchmark", now, now});
+        }
+        return jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+}
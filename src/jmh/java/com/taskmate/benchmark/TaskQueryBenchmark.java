@@ -0,0 +1,115 @@
+package com.taskmate.benchmark;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.KeysetSortField;
+import com.taskmate.pojos.TaskCursor;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskSlice;
+import com.taskmate.pojos.TaskSpecification;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query execution against seeded H2 data. The repository is called directly for offset pages
+ * so the list result cache does not turn the measurement into a cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TaskService taskService;
+    private Pageable firstPage;
+    private Pageable deepPage;
+    private String deepCursor;
+    private LocalDateTime overdueAt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("query" + rows);
+        taskRepository = context.getBean(TaskRepository.class);
+        taskService = context.getBean(TaskService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkContexts.seed(jdbcTemplate, rows);
+
+        Sort byCreatedAt = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        firstPage = PageRequest.of(0, PAGE_SIZE, byCreatedAt);
+        // Half way through the active rows
+        int middle = rows * 9 / 10 / 2;
+        deepPage = PageRequest.of(middle / PAGE_SIZE, PAGE_SIZE, byCreatedAt);
+        deepCursor = jdbcTemplate.queryForObject(
+                "SELECT created_at, id FROM tasks WHERE deleted = FALSE ORDER BY created_at DESC, id DESC"
+                        + " OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY",
+                (rs, rowNum) -> new TaskCursor(KeysetSortField.CREATED_AT, Sort.Direction.DESC,
+                        rs.getTimestamp(1).toLocalDateTime(), rs.getObject(2, UUID.class)).encode(),
+                deepPage.getOffset() - 1);
+        overdueAt = BenchmarkContexts.SEED_BASE.plusMinutes(rows / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Task> offsetFirstPage() {
+        return taskRepository.findAll(TaskSpecification.filterTasks(null, null, null, null, null, false), firstPage);
+    }
+
+    @Benchmark
+    public Page<Task> offsetDeepPage() {
+        return taskRepository.findAll(TaskSpecification.filterTasks(null, null, null, null, null, false), deepPage);
+    }
+
+    @Benchmark
+    public TaskSlice cursorDeepPage() {
+        return taskService.getTasksByCursor(null, null, null, null, null, deepCursor, PAGE_SIZE, false, "createdAt", "desc", null);
+    }
+
+    @Benchmark
+    public Page<Task> overdueFirstPage() {
+        return taskRepository.findAll(
+                TaskSpecification.filterTasks(null, null, true, null, null, false, overdueAt),
+                PageRequest.of(0, PAGE_SIZE, Sort.by("dueDate")));
+    }
+
+    @Benchmark
+    public Page<Map<String, Object>> summaryFirstPage() {
+        return taskRepository.findFields(
+                TaskSpecification.filterTasks(null, null, null, null, null, false), firstPage, TaskField.SUMMARY);
+    }
+}
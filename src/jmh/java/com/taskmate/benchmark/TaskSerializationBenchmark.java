@@ -0,0 +1,125 @@
+package com.taskmate.benchmark;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskResponse;
+import com.taskmate.web.TaskListWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ObjectWriter pageWriter;
+    private TaskListWriter listWriter;
+    private ObjectWriter responseWriter;
+    private ObjectReader taskReader;
+    private Page<Task> page;
+    private TaskResponse response;
+    private byte[] taskJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException, IOException {
+        // Same unknown property handling as the application's Boot configured mapper
+        JsonMapper mapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        pageWriter = mapper.writerFor(Page.class);
+        listWriter = new TaskListWriter(mapper, false, DataSize.ofKilobytes(2));
+        responseWriter = mapper.writerFor(TaskResponse.class);
+        taskReader = mapper.readerFor(Task.class);
+
+        Field id = Task.class.getDeclaredField("id");
+        id.setAccessible(true);
+        List<Task> tasks = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Task task = new Task("Task " + i, "x".repeat(500), BenchmarkContexts.SEED_BASE.plusDays(i));
+            task.prePersist();
+            id.set(task, UUID.randomUUID());
+            tasks.add(task);
+        }
+        page = new PageImpl<>(tasks, PageRequest.of(0, pageSize, Sort.by("createdAt").descending()), 10_000);
+        response = TaskResponse.success(tasks.get(0));
+        taskJson = mapper.writeValueAsBytes(tasks.get(0));
+
+        // Bytes per response, before (Spring's Page) and after (list envelope), as sent with each content coding
+        System.out.printf("%n%d tasks: page %d B (gzip %d B), envelope %d B (gzip %d B, deflate %d B)%n", pageSize,
+                serializePage().length, compress(serializePage(), false).length,
+                writeEnvelope().length, writeEnvelopeGzip().length, compress(writeEnvelope(), true).length);
+    }
+
+    private static byte[] compress(byte[] json, boolean deflate) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = deflate ? new DeflaterOutputStream(bytes) : new GZIPOutputStream(bytes)) {
+            out.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writeEnvelope() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listWriter.writePage(page, out);
+        return out.toByteArray();
+    }
+
+    // What a client sending Accept-Encoding: gzip pays for on the server
+    @Benchmark
+    public byte[] writeEnvelopeGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listWriter.writePage(page, new GZIPOutputStream(out, 8192));
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeTaskResponse() {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Task deserializeTask() {
+        return taskReader.readValue(taskJson);
+    }
+}
@@ -0,0 +1,70 @@
+package com.taskmate.archive;
+
+import com.taskmate.repository.TaskArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves soft deleted tasks out of {@code tasks} into {@code tasks_archive} once they have been
+ * deleted for longer than {@code retention}, so the hot table and its indexes hold live tasks and
+ * recent deletions only. Each batch of {@code batch-size} tasks is its own short transaction, and
+ * batches follow the id order of idx_tasks_deleted_id from where the previous one stopped, so a
+ * run never rescans rows it has already passed. Lists of deleted tasks read both tables, and a
+ * restore moves an archived task back, so archiving changes nothing a client can see.
+ */
+@Component
+public class TaskArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+
+    public TaskArchiver(TaskArchiveRepository taskArchiveRepository,
+                        @Value("${taskmate.archive.enabled:true}") boolean enabled,
+                        @Value("${taskmate.archive.retention:30d}") Duration retention,
+                        @Value("${taskmate.archive.batch-size:500}") int batchSize) {
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${taskmate.archive.interval:1h}", fixedDelayString = "${taskmate.archive.interval:1h}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    // A soft delete sets updated_at and a deleted task cannot be patched, so updated_at is when it was deleted
+    public synchronized int archive() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime cutoff = now.minus(retention);
+        int archived = 0;
+        UUID after = null;
+        while (true) {
+            List<UUID> batch = taskArchiveRepository.archiveBatch(cutoff, after, batchSize, now);
+            archived += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+            after = batch.get(batch.size() - 1);
+        }
+        if (archived > 0) {
+            log.info("Archived {} tasks deleted before {}", archived, cutoff);
+        }
+        return archived;
+    }
+}
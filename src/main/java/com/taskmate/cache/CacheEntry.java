@@ -0,0 +1,39 @@
+package com.taskmate.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.taskmate.routing.ReplicaReadInterceptor;
+
+import java.time.Duration;
+
+/**
+ * A cached value with how long it may be kept. A value read from a replica that may not have
+ * applied the latest write yet is only kept until the replica must have caught up, not for the
+ * whole TTL; see {@link ReplicaReadInterceptor#lagNanos()}.
+ */
+record CacheEntry<V>(V value, long maxAgeNanos) {
+
+    // Null for a null value, which is not cached; call from within the load
+    static <V> CacheEntry<V> loaded(V value) {
+        return value != null ? new CacheEntry<>(value, ReplicaReadInterceptor.lagNanos()) : null;
+    }
+
+    static <K, V> Expiry<K, CacheEntry<V>> expiry(Duration ttl) {
+        long ttlNanos = ttl.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, CacheEntry<V> entry, long currentTime) {
+                return entry.maxAgeNanos() > 0 ? Math.min(entry.maxAgeNanos(), ttlNanos) : ttlNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, CacheEntry<V> entry, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, entry, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(K key, CacheEntry<V> entry, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
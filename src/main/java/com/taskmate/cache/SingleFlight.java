@@ -0,0 +1,104 @@
+package com.taskmate.cache;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time. The first caller runs it; callers arriving while it is
+ * in flight wait for its result, or its exception, instead of running the same query again. Nulls
+ * are shared like any other result. Waiters give up after {@code timeout} with a transient data
+ * access exception, which the API answers with 503 and Retry-After.
+ *
+ * <p>Unlike a cache's own per-key load, waiters park on a future rather than on a map bin's lock,
+ * so they neither block loads of other keys nor pin the carrier of a virtual thread.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    SingleFlight(Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    V execute(K key, Supplier<V> load) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            collapsed.increment();
+            return await(leader);
+        }
+        executed.increment();
+        try {
+            V value = load.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            // A forgotten key may already have a newer flight; only this one is removed
+            flights.remove(key, flight);
+        }
+    }
+
+    // Later callers start a new load instead of joining one that may predate a write
+    void forget(K key) {
+        flights.remove(key);
+    }
+
+    void forgetAll(Collection<K> keys) {
+        for (K key : keys) {
+            flights.remove(key);
+        }
+    }
+
+    void forgetAll() {
+        flights.clear();
+    }
+
+    private V await(CompletableFuture<V> leader) {
+        try {
+            return leader.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // The leader's exception, so every caller fails the way it did
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw new TransientDataAccessResourceException("Timed out waiting for an identical query in progress", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientDataAccessResourceException("Interrupted waiting for an identical query in progress", e);
+        }
+    }
+
+    long getExecutedCount() {
+        return executed.sum();
+    }
+
+    long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    long getTimedOutCount() {
+        return timedOut.sum();
+    }
+}
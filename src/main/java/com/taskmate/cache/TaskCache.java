@@ -0,0 +1,76 @@
+package com.taskmate.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.CacheStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of tasks by id, bounded by entry count and time since load.
+ * Every write path in the service must invalidate the ids it touches. Tasks read from a lagging
+ * replica are kept for the replica lag at most (see {@link CacheEntry}).
+ */
+@Component
+public class TaskCache {
+
+    private final Cache<UUID, CacheEntry<Task>> cache;
+
+    public TaskCache(@Value("${taskmate.cache.task.maximum-size:10000}") long maximumSize,
+                     @Value("${taskmate.cache.task.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(CacheEntry.<UUID, Task>expiry(ttl))
+                .recordStats()
+                .build();
+    }
+
+    // The load runs atomically per key, so an invalidate issued while it is in flight
+    // waits for it and then removes the possibly stale value
+    public Task get(UUID id, Function<UUID, Task> loader) {
+        return value(cache.get(id, key -> CacheEntry.loaded(loader.apply(key))));
+    }
+
+    // Never loads and is not counted as a hit or miss
+    public boolean contains(UUID id) {
+        return cache.asMap().containsKey(id);
+    }
+
+    // Never loads; null when the task is not cached
+    public Task getIfPresent(UUID id) {
+        return value(cache.getIfPresent(id));
+    }
+
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll(Collection<UUID> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static Task value(CacheEntry<Task> entry) {
+        return entry != null ? entry.value() : null;
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.taskmate.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taskmate.pojos.CacheStatistics;
+import com.taskmate.pojos.TaskVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches list query pages (tasks or sparse fieldset rows) under their normalized filter/page/sort key plus a global write
+ * version, and list ETags ({@link TaskVersion}) under their scope and the same version. Any mutation bumps the version, which makes every earlier entry unreachable
+ * without scanning the cache; the orphans age out through size and TTL eviction. Pages read from a
+ * lagging replica are kept for the replica lag at most (see {@link CacheEntry}).
+ */
+@Component
+public class TaskQueryCache {
+
+    private final Cache<VersionedKey, CacheEntry<Slice<?>>> cache;
+    private final Cache<VersionedScope, CacheEntry<TaskVersion>> versions;
+    private final AtomicLong writeVersion = new AtomicLong();
+    private final long overdueBucketSeconds;
+
+    public TaskQueryCache(@Value("${taskmate.cache.query.maximum-size:1000}") long maximumSize,
+                          @Value("${taskmate.cache.query.ttl:30s}") Duration ttl,
+                          @Value("${taskmate.cache.query.overdue-bucket:30s}") Duration overdueBucket) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(CacheEntry.<VersionedKey, Slice<?>>expiry(ttl))
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(CacheEntry.<VersionedScope, TaskVersion>expiry(ttl))
+                .build();
+        this.overdueBucketSeconds = overdueBucket.toSeconds();
+    }
+
+    public boolean cachesOverdueQueries() {
+        return overdueBucketSeconds > 0;
+    }
+
+    // Start of the bucket containing the given time; all overdue queries in a bucket share one "now"
+    public LocalDateTime overdueBucket(LocalDateTime now) {
+        long epochSecond = now.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(epochSecond - Math.floorMod(epochSecond, overdueBucketSeconds), 0, ZoneOffset.UTC);
+    }
+
+    // The key's fields decide the row type and its total whether the result is a Page, so a key
+    // always maps to results of the same type
+    @SuppressWarnings("unchecked")
+    public <S extends Slice<?>> S get(TaskQueryKey key, Supplier<S> loader) {
+        CacheEntry<Slice<?>> entry = cache.get(new VersionedKey(writeVersion.get(), key),
+                versionedKey -> CacheEntry.<Slice<?>>loaded(loader.get()));
+        return entry != null ? (S) entry.value() : null;
+    }
+
+    // A conditional list GET that hits here is answered without a query
+    public TaskVersion getVersion(String scope, Supplier<TaskVersion> loader) {
+        CacheEntry<TaskVersion> entry = versions.get(new VersionedScope(writeVersion.get(), scope),
+                versionedScope -> CacheEntry.loaded(loader.get()));
+        return entry != null ? entry.value() : null;
+    }
+
+    // Never loads and is not counted as a hit or miss
+    public boolean contains(TaskQueryKey key) {
+        return cache.asMap().containsKey(new VersionedKey(writeVersion.get(), key));
+    }
+
+    // Must be called after a mutation is committed
+    public void bumpVersion() {
+        writeVersion.incrementAndGet();
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    private record VersionedKey(long version, TaskQueryKey key) {
+    }
+
+    private record VersionedScope(long version, String scope) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskmate.cache;
+
+import com.taskmate.entity.Priority;
+import com.taskmate.entity.TaskStatus;
+import com.taskmate.pojos.TaskField;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalized list query: equal requests produce equal keys regardless of how optional
+ * parameters were spelled. {@code overdueAt} is the time bucket for overdue queries and
+ * {@code null} otherwise; {@code fields} is the sparse fieldset, or {@code null} for full tasks;
+ * {@code search} is the tokenized search text, or {@code null} without {@code q}; {@code total}
+ * is false for pages read without their count.
+ */
+public record TaskQueryKey(
+        TaskStatus status,
+        Priority priority,
+        boolean overdue,
+        LocalDateTime overdueAt,
+        LocalDateTime dueFrom,
+        LocalDateTime dueTo,
+        boolean deleted,
+        int page,
+        int size,
+        String sortBy,
+        boolean descending,
+        Set<TaskField> fields,
+        List<String> search,
+        boolean total) {
+}
@@ -0,0 +1,95 @@
+package com.taskmate.cache;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.CoalescingStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical concurrent cache misses, by task id and by normalized list query key, into
+ * one database query whose result every caller shares; see {@link SingleFlight}. It sits in front
+ * of the caches, so a burst after an expiry, an invalidation or a deploy costs one query per key.
+ * Writes must forget the keys they touch, like they invalidate the caches, so that a read issued
+ * after a commit never joins a query that started before it.
+ */
+@Component
+public class TaskReadCoalescer implements MeterBinder {
+
+    private final boolean enabled;
+    private final SingleFlight<UUID, Task> tasks;
+    private final SingleFlight<TaskQueryKey, Slice<?>> queries;
+
+    public TaskReadCoalescer(@Value("${taskmate.coalescing.enabled:true}") boolean enabled,
+                             @Value("${taskmate.coalescing.timeout:5s}") Duration timeout) {
+        this.enabled = enabled;
+        this.tasks = new SingleFlight<>(timeout);
+        this.queries = new SingleFlight<>(timeout);
+    }
+
+    public Task getTask(UUID id, Supplier<Task> load) {
+        return enabled ? tasks.execute(id, load) : load.get();
+    }
+
+    // The key's fields decide the row type, as in TaskQueryCache
+    @SuppressWarnings("unchecked")
+    public <S extends Slice<?>> S getPage(TaskQueryKey key, Supplier<S> load) {
+        return enabled ? (S) queries.execute(key, load::get) : load.get();
+    }
+
+    public void forgetTask(UUID id) {
+        tasks.forget(id);
+    }
+
+    public void forgetTasks(Collection<UUID> ids) {
+        tasks.forgetAll(ids);
+    }
+
+    // Any write can change any list
+    public void forgetQueries() {
+        queries.forgetAll();
+    }
+
+    public void forgetAll() {
+        tasks.forgetAll();
+        queries.forgetAll();
+    }
+
+    public CoalescingStatistics taskStatistics() {
+        return statistics(tasks);
+    }
+
+    public CoalescingStatistics queryStatistics() {
+        return statistics(queries);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "task", tasks);
+        register(registry, "query", queries);
+    }
+
+    private static CoalescingStatistics statistics(SingleFlight<?, ?> flight) {
+        return new CoalescingStatistics(flight.getExecutedCount(), flight.getCollapsedCount(), flight.getTimedOutCount());
+    }
+
+    private static <K, V> void register(MeterRegistry registry, String kind, SingleFlight<K, V> flight) {
+        FunctionCounter.builder("taskmate.coalescing.executed", flight, SingleFlight::getExecutedCount)
+                .tag("kind", kind)
+                .register(registry);
+        FunctionCounter.builder("taskmate.coalescing.collapsed", flight, SingleFlight::getCollapsedCount)
+                .tag("kind", kind)
+                .register(registry);
+        FunctionCounter.builder("taskmate.coalescing.timed.out", flight, SingleFlight::getTimedOutCount)
+                .tag("kind", kind)
+                .register(registry);
+    }
+}
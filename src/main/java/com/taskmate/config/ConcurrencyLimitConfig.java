@@ -0,0 +1,78 @@
+package com.taskmate.config;
+
+import com.taskmate.limiter.AdaptiveConcurrencyLimit;
+import com.taskmate.limiter.ConcurrencyLimitInterceptor;
+import com.taskmate.limiter.RequestBudget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits in front of the task API, one per {@link RequestBudget}, configured
+ * under {@code taskmate.limiter.<budget>}. They shed load at the edge, with a limit that follows
+ * measured latency; the connection gate of the virtual thread mode still bounds connection use
+ * behind them. The change feed is not limited: its streams are long lived and mostly idle.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmate.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    public ConcurrencyLimitConfig(Environment environment,
+                                  ObjectMapper objectMapper,
+                                  ObjectProvider<MeterRegistry> meterRegistry,
+                                  @Value("${taskmate.limiter.backoff:0.9}") double backoff,
+                                  @Value("${taskmate.limiter.retry-after:1s}") Duration retryAfter) {
+        Map<RequestBudget, AdaptiveConcurrencyLimit> limits = new EnumMap<>(RequestBudget.class);
+        limits.put(RequestBudget.POINT, limit(environment, "point", 100, 10, 1000, Duration.ofMillis(100), backoff));
+        limits.put(RequestBudget.LIST, limit(environment, "list", 20, 2, 200, Duration.ofMillis(500), backoff));
+        meterRegistry.ifAvailable(registry -> limits.forEach((budget, limit) -> register(registry, budget, limit)));
+        this.interceptor = new ConcurrencyLimitInterceptor(limits, objectMapper, retryAfter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/v1/tasks/**")
+                .excludePathPatterns("/api/v1/tasks/events");
+    }
+
+    private static AdaptiveConcurrencyLimit limit(Environment environment, String budget,
+                                                  int initial, int min, int max, Duration latencyTarget, double backoff) {
+        String prefix = "taskmate.limiter." + budget + ".";
+        return new AdaptiveConcurrencyLimit(
+                environment.getProperty(prefix + "initial-limit", Integer.class, initial),
+                environment.getProperty(prefix + "min-limit", Integer.class, min),
+                environment.getProperty(prefix + "max-limit", Integer.class, max),
+                environment.getProperty(prefix + "latency-target", Duration.class, latencyTarget),
+                backoff);
+    }
+
+    private static void register(MeterRegistry registry, RequestBudget budget, AdaptiveConcurrencyLimit limit) {
+        String tag = budget.name().toLowerCase(Locale.ROOT);
+        Gauge.builder("taskmate.limiter.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("budget", tag)
+                .register(registry);
+        Gauge.builder("taskmate.limiter.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("budget", tag)
+                .register(registry);
+        FunctionCounter.builder("taskmate.limiter.rejected", limit, AdaptiveConcurrencyLimit::getRejectedCount)
+                .tag("budget", tag)
+                .register(registry);
+    }
+}
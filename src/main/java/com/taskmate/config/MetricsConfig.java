@@ -0,0 +1,52 @@
+package com.taskmate.config;
+
+import com.taskmate.metrics.MethodTimingInterceptor;
+import com.taskmate.metrics.StatementMetricsDataSource;
+import com.taskmate.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumentation that Spring Boot does not provide on its own: latency of every {@link TaskService}
+ * method and of every JDBC statement. Request latency, connection pool wait and Hibernate statistics
+ * come from Boot's Micrometer auto-configuration; everything is scraped from /actuator/prometheus.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    // Infrastructure role makes the transaction auto-proxy creator apply it; ordered outside the transaction
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor taskServiceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(TaskService.class)),
+                new MethodTimingInterceptor("taskmate.service", meterRegistry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public static BeanPostProcessor statementMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementMetricsDataSource)) {
+                    return new StatementMetricsDataSource(dataSource, "taskmate.jdbc.statements", meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.taskmate.config;
+
+import com.taskmate.routing.ReadWriteRoutingDataSource;
+import com.taskmate.routing.ReadYourWritesFilter;
+import com.taskmate.routing.ReplicaPool;
+import com.taskmate.routing.ReplicaRead;
+import com.taskmate.routing.ReplicaReadInterceptor;
+import com.taskmate.service.TaskService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.annotation.AnnotationMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active with {@code taskmate.replicas.enabled=true}: {@link ReplicaRead} methods of
+ * {@link TaskService} read from the replicas in {@code taskmate.replicas.urls}, everything else
+ * uses the primary configured under {@code spring.datasource}. Every pool takes its settings from
+ * {@code spring.datasource.hikari}. The replicas must be kept in sync by the database; the schema
+ * is only initialized on the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmate.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Replaces the auto-configured pool; the statement metrics wrapper still applies on top
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, ReplicaPool replicaPool,
+                                 @Value("${taskmate.replicas.sticky-window:2s}") Duration stickyWindow,
+                                 @Value("${taskmate.replicas.max-lag:30s}") Duration maxLag) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        return new ReadWriteRoutingDataSource(primary, replicaPool, stickyWindow, maxLag);
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(DataSourceProperties properties,
+                                   Environment environment,
+                                   ObjectProvider<MeterRegistry> meterRegistry,
+                                   @Value("${taskmate.replicas.connection-timeout:1s}") Duration connectionTimeout,
+                                   @Value("${taskmate.replicas.validation-timeout:1s}") Duration validationTimeout) {
+        Binder binder = Binder.get(environment);
+        List<String> urls = binder.bind("taskmate.replicas.urls", Bindable.listOf(String.class)).orElse(List.of());
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("taskmate.replicas.enabled needs at least one taskmate.replicas.urls entry");
+        }
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(environment.getProperty("taskmate.replicas.username", properties.determineUsername()));
+            replica.setPassword(environment.getProperty("taskmate.replicas.password", properties.determinePassword()));
+            replica.setReadOnly(true);
+            // A replica that does not answer is skipped quickly instead of holding the read for the pool default
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Not beans, so Boot's pool metrics do not reach them
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new ReplicaPool(replicas, (int) Math.max(1, validationTimeout.toSeconds()));
+    }
+
+    // Infrastructure role makes the transaction auto-proxy creator apply it; inside the timing advice,
+    // outside the transaction interceptor that takes the connection
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor replicaReadAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(TaskService.class), new AnnotationMethodMatcher(ReplicaRead.class, true)),
+                new ReplicaReadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    // Registered by Spring Boot for every request; tells the routing which client a read is for
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    // Spring Boot registers execution listeners with the transaction manager
+    @Bean
+    public TransactionExecutionListener replicaStickinessListener(DataSource dataSource) {
+        ReadWriteRoutingDataSource routing = routing(dataSource);
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (commitFailure == null && !transaction.isReadOnly()) {
+                    routing.writeCommitted();
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(DataSource dataSource) {
+        ReadWriteRoutingDataSource routing = routing(dataSource);
+        return registry -> {
+            Gauge.builder("taskmate.replicas.up", routing.getReplicas(), ReplicaPool::getUpCount)
+                    .register(registry);
+            FunctionCounter.builder("taskmate.replicas.reads", routing, ReadWriteRoutingDataSource::getReplicaReadCount)
+                    .tag("target", "replica")
+                    .register(registry);
+            FunctionCounter.builder("taskmate.replicas.reads", routing, ReadWriteRoutingDataSource::getPrimaryReadCount)
+                    .tag("target", "primary")
+                    .register(registry);
+        };
+    }
+
+    private static ReadWriteRoutingDataSource routing(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("The DataSource bean is not the read/write routing DataSource", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.taskmate.config;
+
+import com.taskmate.repository.ConnectionConcurrencyGate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active when requests run on virtual threads ({@code spring.threads.virtual.enabled=true}).
+ * Spring Boot switches Tomcat and the task executors over; this adds the gate that keeps the
+ * now unbounded request concurrency from oversubscribing the connection pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    // Wraps the DataSource bean, so every connection checkout passes the gate. Permits default to
+    // the Hikari pool size so every thread past the gate can get a connection
+    @Bean
+    public static BeanPostProcessor connectionConcurrencyGatePostProcessor(
+            @Value("${taskmate.db-gate.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${taskmate.db-gate.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionConcurrencyGate)) {
+                    return new ConnectionConcurrencyGate(dataSource, permits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
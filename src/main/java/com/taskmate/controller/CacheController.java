@@ -0,0 +1,45 @@
+package com.taskmate.controller;
+
+import com.taskmate.cache.TaskCache;
+import com.taskmate.cache.TaskQueryCache;
+import com.taskmate.cache.TaskReadCoalescer;
+import com.taskmate.pojos.CacheStatistics;
+import com.taskmate.pojos.CoalescingStatistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+public class CacheController {
+
+    private final TaskCache taskCache;
+    private final TaskQueryCache taskQueryCache;
+    private final TaskReadCoalescer taskReadCoalescer;
+
+    public CacheController(TaskCache taskCache, TaskQueryCache taskQueryCache, TaskReadCoalescer taskReadCoalescer) {
+        this.taskCache = taskCache;
+        this.taskQueryCache = taskQueryCache;
+        this.taskReadCoalescer = taskReadCoalescer;
+    }
+
+    @GetMapping(value = "/stats")
+    public ResponseEntity<Map<String, CacheStatistics>> getStatistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("tasks", taskCache.statistics());
+        statistics.put("queries", taskQueryCache.statistics());
+        return ResponseEntity.ok(statistics);
+    }
+
+    @GetMapping(value = "/coalescing")
+    public ResponseEntity<Map<String, CoalescingStatistics>> getCoalescingStatistics() {
+        Map<String, CoalescingStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("tasks", taskReadCoalescer.taskStatistics());
+        statistics.put("queries", taskReadCoalescer.queryStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+}
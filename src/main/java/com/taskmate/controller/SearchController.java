@@ -0,0 +1,33 @@
+package com.taskmate.controller;
+
+import com.taskmate.pojos.SearchIndexStatistics;
+import com.taskmate.search.TaskSearchIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+
+    private final TaskSearchIndex taskSearchIndex;
+
+    public SearchController(TaskSearchIndex taskSearchIndex) {
+        this.taskSearchIndex = taskSearchIndex;
+    }
+
+    @GetMapping(value = "/stats")
+    public ResponseEntity<SearchIndexStatistics> getStatistics() {
+        return ResponseEntity.ok(taskSearchIndex.statistics());
+    }
+
+    // Rebuilds in the background; the current index keeps serving searches until the new one is ready
+    @PostMapping(value = "/rebuild")
+    public ResponseEntity<SearchIndexStatistics> rebuild() {
+        HttpStatus status = taskSearchIndex.rebuildAsync() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(taskSearchIndex.statistics());
+    }
+}
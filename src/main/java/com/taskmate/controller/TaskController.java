@@ -3,28 +3,72 @@ package com.taskmate.controller;
 import com.taskmate.entity.Priority;
 import com.taskmate.entity.Task;
 import com.taskmate.entity.TaskStatus;
+import com.taskmate.limiter.ConcurrencyBudget;
+import com.taskmate.limiter.RequestBudget;
+import com.taskmate.pojos.BulkCreateResponse;
+import com.taskmate.pojos.BulkTaskRequest;
+import com.taskmate.pojos.BulkTaskResult;
+import com.taskmate.pojos.SystemError;
+import com.taskmate.pojos.TaskPatch;
 import com.taskmate.pojos.TaskResponse;
+import com.taskmate.pojos.TaskSlice;
+import com.taskmate.pojos.TaskStatistics;
+import com.taskmate.pojos.TaskVersion;
+import com.taskmate.pojos.WritePrecondition;
+import com.taskmate.service.PreconditionFailedException;
 import com.taskmate.service.TaskService;
+import com.taskmate.web.TaskListWriter;
+import com.taskmate.writebehind.WriteQueueFullException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/v1/tasks")
 public class TaskController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TaskService taskService;
+    private final TaskListWriter taskListWriter;
+    private final ObjectWriter taskWriter;
+    private final ObjectReader taskReader;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskListWriter taskListWriter, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.taskListWriter = taskListWriter;
+        this.taskWriter = objectMapper.writerFor(Task.class);
+        this.taskReader = objectMapper.readerFor(Task.class);
     }
 
     @PostMapping
@@ -33,19 +77,127 @@ public class TaskController {
             return ResponseEntity.badRequest().build();
         }
         Task createdTask = taskService.createTask(task);
+        if (taskService.isWriteBehindEnabled()) {
+            // Queued for a group committed INSERT; already readable by id
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new TaskResponse(createdTask, "Task accepted", true));
+        }
         TaskResponse taskResponse = new TaskResponse(createdTask, "Task create Successfully!", true);
         return ResponseEntity.status(HttpStatus.CREATED).body(taskResponse);
     }
 
+    // A bulk create takes as long as its body is large, so it holds a slot without moving the limit
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ConcurrencyBudget(value = RequestBudget.LIST, sampleLatency = false)
+    public ResponseEntity<BulkCreateResponse> createTasks(@RequestBody List<Task> tasks) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTasks(tasks));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    @ConcurrencyBudget(value = RequestBudget.LIST, sampleLatency = false)
+    public ResponseEntity<BulkCreateResponse> createTasksFromNdjson(InputStream body) throws IOException {
+        // Tasks are read line by line and handed to the service as they are parsed. A malformed line is
+        // reported like an invalid task and the rest are still created, as earlier chunks already are
+        Map<Integer, String> malformed = new HashMap<>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            BulkCreateResponse response = taskService.createTasks(ndjsonTasks(lines, malformed));
+            for (BulkTaskResult result : response.getResults()) {
+                String error = malformed.get(result.getIndex());
+                if (error != null) {
+                    result.setErrors(List.of(error));
+                }
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+    }
+
+    // One task per non-blank line; a line that does not parse is handed on as null (a failed item)
+    // and its error recorded under its index
+    private Iterable<Task> ndjsonTasks(BufferedReader lines, Map<Integer, String> malformed) {
+        return () -> new Iterator<>() {
+            private String line;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (line == null) {
+                        line = lines.readLine();
+                        if (line == null) {
+                            return false;
+                        }
+                        if (line.isBlank()) {
+                            line = null;
+                        }
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String current = line;
+                line = null;
+                int position = index++;
+                try {
+                    return taskReader.readValue(current);
+                } catch (JacksonException e) {
+                    malformed.put(position, "Malformed JSON: " + e.getOriginalMessage());
+                    return null;
+                }
+            }
+        };
+    }
+
+    // Dashboard counts from in-memory counters; no query per request
+    @GetMapping(value = "/stats")
+    public ResponseEntity<TaskStatistics> getTaskStatistics() {
+        return ResponseEntity.ok(taskService.getTaskStatistics());
+    }
 
+    // A conditional request (If-None-Match / If-Modified-Since) is answered with 304 from the version
+    // columns alone, before the task is loaded or serialized; any other request loads the task once and
+    // takes its ETag and Last-Modified from it
     @GetMapping(value = "/{id}")
-    public Task getTaskById(@PathVariable String id) {
-        return taskService.getTaskById(id);
+    public Task getTaskById(@PathVariable String id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            TaskVersion version = taskService.getTaskVersion(id);
+            if (version != null && request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+                return null;
+            }
+        }
+        Task task = taskService.getTaskById(id);
+        if (task != null) {
+            TaskVersion version = TaskVersion.ofTask(task.getVersion(), task.getUpdatedAt());
+            if (request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+                return null;
+            }
+        }
+        return task;
+    }
+
+    // Only the fields present in the body change; a version in the body or If-Match / If-Unmodified-Since
+    // makes the UPDATE conditional, with 409 or 412 when it matches nothing
+    @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Task> updateTask(@PathVariable String id, @RequestBody TaskPatch patch, WebRequest request) {
+        Task updated = taskService.updateTask(id, patch, precondition(request));
+        if (updated == null) {
+            return ResponseEntity.notFound().build();
+        }
+        TaskVersion version = TaskVersion.ofTask(updated.getVersion(), updated.getUpdatedAt());
+        return ResponseEntity.ok()
+                .eTag(version.getETag())
+                .lastModified(version.lastModifiedMillis())
+                .body(updated);
     }
 
     @DeleteMapping(value = "/{id}")
-    public ResponseEntity<Map<String, Object>> softDeleteTask(@PathVariable String id) {
-        boolean deleted = taskService.softDeleteTask(id);
+    public ResponseEntity<Map<String, Object>> softDeleteTask(@PathVariable String id, WebRequest request) {
+        boolean deleted = taskService.softDeleteTask(id, precondition(request));
         Map<String, Object> response = new HashMap<>();
         
         if (deleted) {
@@ -59,8 +211,79 @@ public class TaskController {
         }
     }
 
+    // If-Match / If-Unmodified-Since: checked by the write's own UPDATE, so no other write can slip
+    // in between; a stale precondition is answered with 412 and nothing changes
+    private static WritePrecondition precondition(WebRequest request) {
+        return WritePrecondition.of(request.getHeader(HttpHeaders.IF_MATCH), request.getHeader(HttpHeaders.IF_UNMODIFIED_SINCE));
+    }
+
+    // Either the ids in the body or, when no ids are sent, every active task matching the filters
+    @PostMapping(value = "/bulk-delete")
+    @ConcurrencyBudget(RequestBudget.LIST)
+    public ResponseEntity<Map<String, Object>> softDeleteTasks(
+            @RequestBody(required = false) BulkTaskRequest request,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Boolean overdue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo) {
+
+        List<String> ids = bulkIds(request, overdue, dueFrom, dueTo);
+        int affected = ids != null
+                ? taskService.softDeleteTasks(ids)
+                : taskService.softDeleteTasks(status, priority, overdue, dueFrom, dueTo);
+        return ResponseEntity.ok(bulkUpdateResponse(affected, "Tasks deleted successfully"));
+    }
+
+    @PostMapping(value = "/bulk-restore")
+    @ConcurrencyBudget(RequestBudget.LIST)
+    public ResponseEntity<Map<String, Object>> restoreTasks(
+            @RequestBody(required = false) BulkTaskRequest request,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Boolean overdue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo) {
+
+        List<String> ids = bulkIds(request, overdue, dueFrom, dueTo);
+        // overdue only matches active tasks, so together with deleted it would never match anything
+        if (ids == null && Boolean.TRUE.equals(overdue)) {
+            throw new IllegalArgumentException("overdue cannot select deleted tasks to restore");
+        }
+        int affected = ids != null
+                ? taskService.restoreTasks(ids)
+                : taskService.restoreTasks(status, priority, overdue, dueFrom, dueTo);
+        return ResponseEntity.ok(bulkUpdateResponse(affected, "Tasks restored successfully"));
+    }
+
+    // The ids to change, or null to select by the filters. A request with neither is rejected rather
+    // than taken as an empty filter, which would change every task. Only filters that add a predicate
+    // count: status and priority are not filtered on, and overdue=false selects nothing
+    private static List<String> bulkIds(BulkTaskRequest request, Boolean overdue, LocalDateTime dueFrom, LocalDateTime dueTo) {
+        if (request != null && request.getIds() != null) {
+            if (request.getIds().isEmpty()) {
+                throw new IllegalArgumentException("ids must not be empty");
+            }
+            return request.getIds();
+        }
+        if (Boolean.TRUE.equals(overdue) || dueFrom != null || dueTo != null) {
+            return null;
+        }
+        throw new IllegalArgumentException("Either ids or one of dueFrom, dueTo or overdue=true is required");
+    }
+
+    private Map<String, Object> bulkUpdateResponse(int affected, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", message);
+        response.put("affected", affected);
+        return response;
+    }
+
+    // Lists are written by TaskListWriter rather than returned, see there for the envelope
     @GetMapping
-    public ResponseEntity<Page<Task>> getTasks(
+    @ConcurrencyBudget(RequestBudget.LIST)
+    public void getTasks(
             @RequestParam(required = false) TaskStatus status,
             @RequestParam(required = false) Priority priority,
             @RequestParam(required = false) Boolean overdue,
@@ -70,12 +293,136 @@ public class TaskController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "false") Boolean deleted,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String direction) {
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "true") boolean total,
+            WebRequest request,
+            HttpServletResponse response) throws IOException {
+
+        String view = "page=" + page + "&size=" + size + "&sortBy=" + sortBy + "&direction=" + direction
+                + "&cursor=" + cursor + "&fields=" + fields + "&total=" + total;
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+
+        // Presence of the cursor parameter (even empty, for the first page) selects keyset mode
+        if (cursor != null) {
+            if (fields != null) {
+                throw new IllegalArgumentException("fields is not supported with cursor pagination");
+            }
+            // The keyset query itself is cheap; its rows are the ETag, without a COUNT over the filter
+            TaskSlice slice = taskService.getTasksByCursor(
+                    status, priority, overdue, dueFrom, dueTo, cursor, size, deleted, sortBy, direction, q);
+            TaskVersion version = TaskVersion.ofSlice(view, slice);
+            if (request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+                return;
+            }
+            taskListWriter.writeSlice(slice, acceptEncoding, response);
+            return;
+        }
+
+        // total=false skips the COUNT, for the page and for its ETag, which hashes the rows like a keyset page
+        if (!total) {
+            if (fields != null) {
+                throw new IllegalArgumentException("fields is not supported with total=false");
+            }
+            Slice<Task> tasks = taskService.getTasksWithoutTotal(
+                    status, priority, overdue, dueFrom, dueTo, page, size, deleted, sortBy, direction, q);
+            TaskVersion version = TaskVersion.ofSlice(view, tasks);
+            if (request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+                return;
+            }
+            taskListWriter.writePage(tasks, acceptEncoding, response);
+            return;
+        }
+
+        // The ETag covers the filter, the representation and MAX(updated_at)/COUNT(*) of the matching
+        // rows; it is cached until the next write, so a matching If-None-Match costs no query
+        TaskVersion version = taskService.getTasksVersion(status, priority, overdue, dueFrom, dueTo, deleted, view, q);
+        if (request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+            return;
+        }
+
+        // Sparse fieldset: only the requested columns are selected and serialized
+        if (fields != null) {
+            taskListWriter.writeFields(taskService.getTaskFields(
+                    status, priority, overdue, dueFrom, dueTo, page, size, deleted, sortBy, direction, fields, q),
+                    acceptEncoding, response);
+            return;
+        }
 
-        Page<Task> tasks = taskService.getTasks(status, priority, overdue, dueFrom, dueTo, page, size,deleted, sortBy, direction);
+        Page<Task> tasks = taskService.getTasks(status, priority, overdue, dueFrom, dueTo, page, size,deleted, sortBy, direction, q);
 
-        return ResponseEntity.ok(tasks);
+        taskListWriter.writePage(tasks, acceptEncoding, response);
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @ConcurrencyBudget(value = RequestBudget.LIST, sampleLatency = false)
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Boolean overdue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(defaultValue = "false") Boolean deleted) {
+
+        // One JSON document per line, written as rows come off the database cursor
+        StreamingResponseBody body = out -> {
+            taskService.exportTasks(status, priority, overdue, dueFrom, dueTo, deleted, task -> {
+                try {
+                    out.write(taskWriter.writeValueAsBytes(task));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
 
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<SystemError> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(SystemError.badRequest(e.getMessage()));
+    }
+
+    @ExceptionHandler(JacksonException.class)
+    public ResponseEntity<SystemError> handleMalformedBody(JacksonException e) {
+        return ResponseEntity.badRequest().body(SystemError.badRequest("Malformed request body: " + e.getOriginalMessage()));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<SystemError> handlePreconditionFailed(PreconditionFailedException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(SystemError.preconditionFailed(e.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<SystemError> handleVersionConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(SystemError.conflict(e.getMessage()));
+    }
+
+    // Write-behind backpressure; the task was not accepted
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<SystemError> handleQueueFull(WriteQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(SystemError.tooManyRequests(e.getMessage()));
+    }
+
+    // Waiting for an identical query timed out; the request is safe to retry
+    @ExceptionHandler(TransientDataAccessResourceException.class)
+    public ResponseEntity<SystemError> handleDatabaseBusy(TransientDataAccessResourceException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(SystemError.serviceUnavailable(e.getMessage()));
+    }
+
+    // No connection for the transaction, e.g. the connection gate is saturated; safe to retry
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<SystemError> handleNoConnection(CannotCreateTransactionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(SystemError.serviceUnavailable(e.getMostSpecificCause().getMessage()));
+    }
 }
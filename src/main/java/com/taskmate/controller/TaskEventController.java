@@ -0,0 +1,29 @@
+package com.taskmate.controller;
+
+import com.taskmate.events.TaskEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/v1/tasks")
+public class TaskEventController {
+
+    private final TaskEventBroadcaster taskEventBroadcaster;
+
+    public TaskEventController(TaskEventBroadcaster taskEventBroadcaster) {
+        this.taskEventBroadcaster = taskEventBroadcaster;
+    }
+
+    // Change feed; EventSource sends Last-Event-ID on reconnect and gets the events it missed, or a
+    // resync for an id this run did not issue
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventBroadcaster.subscribe(lastEventId);
+    }
+}
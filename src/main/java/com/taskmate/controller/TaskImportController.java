@@ -0,0 +1,69 @@
+package com.taskmate.controller;
+
+import com.taskmate.imports.ImportFormat;
+import com.taskmate.imports.TaskImporter;
+import com.taskmate.limiter.ConcurrencyBudget;
+import com.taskmate.limiter.RequestBudget;
+import com.taskmate.pojos.ImportProgress;
+import com.taskmate.pojos.SystemError;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/tasks/import")
+public class TaskImportController {
+
+    private final TaskImporter taskImporter;
+
+    public TaskImportController(TaskImporter taskImporter) {
+        this.taskImporter = taskImporter;
+    }
+
+    // A file already on the server, under taskmate.import.directory; poll the Location for progress
+    @PostMapping(params = "file")
+    public ResponseEntity<ImportProgress> importFile(@RequestParam String file,
+                                                     @RequestParam(required = false) String format) {
+        ImportProgress progress = taskImporter.startFileImport(file, format != null ? ImportFormat.fromName(format) : null);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/tasks/import/" + progress.getId()))
+                .body(progress);
+    }
+
+    // The body is parsed as it arrives; answers once every row is imported or rejected
+    @PostMapping(params = "!file", consumes = {"text/csv", "application/x-ndjson"})
+    @ConcurrencyBudget(value = RequestBudget.LIST, sampleLatency = false)
+    public ResponseEntity<ImportProgress> importBody(InputStream body,
+                                                     @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                     @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength) {
+        ImportProgress progress = taskImporter.importStream(body, ImportFormat.fromContentType(contentType),
+                contentLength != null ? contentLength : -1);
+        HttpStatus status = progress.getStatus() == ImportProgress.Status.COMPLETED
+                ? HttpStatus.OK
+                : HttpStatus.UNPROCESSABLE_CONTENT;
+        return ResponseEntity.status(status).body(progress);
+    }
+
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<ImportProgress> getProgress(@PathVariable UUID id) {
+        ImportProgress progress = taskImporter.getProgress(id);
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<SystemError> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(SystemError.badRequest(e.getMessage()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.taskmate.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A soft deleted task moved out of {@code tasks} by the archiver once it had been deleted for
+ * longer than the retention period. Rows are only ever moved in and out in bulk, never updated.
+ */
+@Entity
+@Table(
+        name = "tasks_archive",
+        indexes = {
+                // The deleted task listing (DeletedTask) reads the archive with the same filters and sorts
+                @Index(name = "idx_tasks_archive_created_at", columnList = "created_at, id"),
+                @Index(name = "idx_tasks_archive_due_date", columnList = "due_date, updated_at"),
+                @Index(name = "idx_tasks_archive_updated_at", columnList = "updated_at")
+        }
+)
+public class ArchivedTask extends StoredTask {
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedTask() {
+        // Required by JPA
+    }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
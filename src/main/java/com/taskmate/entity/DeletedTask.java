@@ -0,0 +1,26 @@
+package com.taskmate.entity;
+
+import jakarta.persistence.Entity;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+/**
+ * Every soft deleted task, whether it is still in {@code tasks} or already archived. Lists of
+ * deleted tasks read from here, so archiving never changes what they return. A task is in exactly
+ * one of the two tables: the archiver moves it in one transaction.
+ */
+@Entity
+@Immutable
+@Subselect("SELECT id, title, description, completed, deleted, due_date, created_at, updated_at, version"
+        + " FROM tasks WHERE deleted = TRUE"
+        + " UNION ALL"
+        + " SELECT id, title, description, completed, deleted, due_date, created_at, updated_at, version"
+        + " FROM tasks_archive")
+@Synchronize({"tasks", "tasks_archive"})
+public class DeletedTask extends StoredTask {
+
+    protected DeletedTask() {
+        // Required by JPA
+    }
+}
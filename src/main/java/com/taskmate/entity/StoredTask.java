@@ -0,0 +1,63 @@
+package com.taskmate.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns a task row has wherever it is stored. Archived and deleted task rows are only read
+ * back as {@link Task}s, so this carries no validation and no business methods.
+ */
+@MappedSuperclass
+public abstract class StoredTask {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private long version;
+
+    protected StoredTask() {
+        // Required by JPA
+    }
+
+    public Task toTask() {
+        return new Task(id, title, description, completed, deleted, dueDate, createdAt, updatedAt, version);
+    }
+
+    // ===== Getters Only =====
+
+    public UUID getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public boolean isCompleted() { return completed; }
+    public boolean isDeleted() { return deleted; }
+    public LocalDateTime getDueDate() { return dueDate; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getVersion() { return version; }
+}
@@ -1,24 +1,32 @@
 package com.taskmate.entity;
 
+import com.taskmate.pojos.TaskPatch;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
 @Table(
         name = "tasks",
         indexes = {
-                @Index(name = "idx_task_completed", columnList = "completed"),
-                @Index(name = "idx_task_due_date", columnList = "due_date")
+                // Every list query filters on deleted, so it leads each index; the trailing columns
+                // follow the TaskSpecification predicates and the supported sort orders
+                @Index(name = "idx_tasks_deleted_created_at", columnList = "deleted, created_at, id"),
+                @Index(name = "idx_tasks_deleted_id", columnList = "deleted, id"),
+                @Index(name = "idx_tasks_deleted_due_date", columnList = "deleted, due_date, updated_at"),
+                @Index(name = "idx_tasks_deleted_completed_due_date", columnList = "deleted, completed, due_date, updated_at"),
+                @Index(name = "idx_tasks_deleted_updated_at", columnList = "deleted, updated_at")
         }
 )
 public class Task {
 
     @Id
-    @GeneratedValue
+    @GeneratedTaskId
     private UUID id;
 
     @NotBlank(message = "Title is required")
@@ -45,6 +53,17 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by every UPDATE, including the single statement PATCH and bulk soft delete/restore.
+    // The default matches schema.sql, so raw INSERTs without a version work on the generated DDL too
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Set once write-behind creation has fixed the id and timestamps ahead of the INSERT
+    @Transient
+    private boolean accepted;
+
     protected Task() {
         // Required by JPA
     }
@@ -56,15 +75,36 @@ public class Task {
         this.completed = false;
     }
 
+    // A task as read from the archive or the deleted tasks view (StoredTask.toTask)
+    Task(UUID id, String title, String description, boolean completed, boolean deleted, LocalDateTime dueDate,
+         LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
+        this(title, description, dueDate);
+        this.id = id;
+        this.completed = completed;
+        this.deleted = deleted;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    // Timestamps are truncated to the column precision so the in-memory value equals the stored
+    // one; cursors built from a freshly persisted task must compare correctly against the database
     @PrePersist
     public void prePersist() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        if (accepted) {
+            return;
+        }
+        this.createdAt = now();
+        this.updatedAt = this.createdAt;
     }
 
     @PreUpdate
     public void preUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = now();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // ===== Business Methods =====
@@ -98,6 +138,21 @@ public class Task {
     public LocalDateTime getDueDate() { return dueDate; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getVersion() { return version; }
+
+    // Write-behind creation: the task gets its identity and creation time when it is accepted,
+    // so the response and reads before the INSERT show what will be stored
+    public void accept(UUID id, LocalDateTime createdAt) {
+        this.id = id;
+        this.createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+        this.updatedAt = this.createdAt;
+        this.accepted = true;
+    }
+
+    // Package-private, so it is not serialized
+    boolean isAccepted() {
+        return accepted;
+    }
 
     // Controlled update method instead of public setters
     public void updateDetails(String title, String description, LocalDateTime dueDate) {
@@ -105,4 +160,29 @@ public class Task {
         this.description = description;
         this.dueDate = dueDate;
     }
+
+    // Detached copy of this task as its row reads after TaskRepository.patchTask applied the patch;
+    // the original is left untouched because cached instances are shared between requests
+    public Task withPatch(TaskPatch patch, LocalDateTime updatedAt) {
+        Task copy = new Task(title, description, dueDate);
+        copy.id = id;
+        copy.completed = completed;
+        copy.deleted = deleted;
+        copy.createdAt = createdAt;
+        if (patch.getTitle() != null) {
+            copy.title = patch.getTitle();
+        }
+        if (patch.hasDescription()) {
+            copy.description = patch.getDescription();
+        }
+        if (patch.hasDueDate()) {
+            copy.dueDate = patch.getDueDate();
+        }
+        if (patch.getCompleted() != null) {
+            copy.completed = patch.getCompleted();
+        }
+        copy.updatedAt = updatedAt;
+        copy.version = version + 1;
+        return copy;
+    }
 }
@@ -0,0 +1,34 @@
+package com.taskmate.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Generates a time-ordered {@link UuidV7} unless write-behind creation already gave the task one
+ * ({@link Task#accept}), as it answers with the id before the INSERT runs. Any other id set on a
+ * new task is replaced.
+ */
+public class TaskIdGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (owner instanceof Task task && task.isAccepted() && task.getId() != null) {
+            return task.getId();
+        }
+        return UuidV7.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
@@ -0,0 +1,222 @@
+package com.taskmate.events;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans committed task changes out to Server-Sent Events subscribers. Idle connections are parked
+ * async requests and hold no thread; a subscriber only gets a (virtual) thread while it has
+ * events to write. Every subscriber has its own bounded buffer, so a slow consumer never holds up
+ * publishers or other subscribers: when its buffer overflows the backlog is dropped and it is told
+ * to resync, i.e. refetch the list. The last {@code replay-size} events are kept for clients that
+ * reconnect with {@code Last-Event-ID}; one that has fallen further behind is told to resync. Event
+ * ids are {@code <boot id>-<sequence>}: the sequence restarts with the application, so an id from
+ * an earlier run (or another instance) never resumes into unrelated events but resyncs.
+ */
+@Component
+public class TaskEventBroadcaster implements DisposableBean {
+
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-events-", 0).factory());
+    private final LongAdder resyncs = new LongAdder();
+
+    // Random per run, without '-'
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+
+    // Recent events by sequence; guarded by this, like the sequence itself
+    private final TaskEvent[] ring;
+    private long sequence;
+
+    public TaskEventBroadcaster(@Value("${taskmate.events.replay-size:1000}") int replaySize,
+                                @Value("${taskmate.events.subscriber-buffer:256}") int bufferSize,
+                                @Value("${taskmate.events.timeout:30m}") Duration timeout) {
+        this.ring = new TaskEvent[replaySize];
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    // Called once the change has committed; hands the event to every buffer without blocking
+    public synchronized void publish(TaskEvent.Type type, UUID taskId, Task task) {
+        TaskEvent event = new TaskEvent(++sequence, type, taskId, task);
+        ring[slot(event.getSequence())] = event;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // lastEventId as sent by the client, or null for a new subscription
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, sequenceOf(lastEventId.trim()));
+            }
+            subscribers.add(subscriber);
+        }
+        // Opens the stream with a comment, so the client sees it connected before the first change
+        subscriber.ping();
+        return emitter;
+    }
+
+    // The sequence of an id issued by this run, or -1 for any other id
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(bootId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Caller holds the monitor; an id of another run arrives here as -1
+    private void replay(Subscriber subscriber, long lastEventId) {
+        long oldest = Math.max(1, sequence - ring.length + 1);
+        if (lastEventId > sequence || lastEventId < oldest - 1) {
+            subscriber.resync(sequence);
+            return;
+        }
+        for (long next = lastEventId + 1; next <= sequence; next++) {
+            subscriber.offer(ring[slot(next)]);
+        }
+    }
+
+    private String eventId(long eventSequence) {
+        return bootId + "-" + eventSequence;
+    }
+
+    private int slot(long eventSequence) {
+        return (int) ((eventSequence - 1) % ring.length);
+    }
+
+    // Keeps proxies from closing idle streams and finds connections the client has dropped
+    @Scheduled(fixedDelayString = "${taskmate.events.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.ping();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getResyncCount() {
+        return resyncs.sum();
+    }
+
+    @Override
+    public void destroy() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        // Guarded by this; sends happen outside the lock
+        private final ArrayDeque<TaskEvent> buffer = new ArrayDeque<>();
+        private long resyncAt = -1;
+        private boolean ping;
+        private boolean flushing;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(TaskEvent event) {
+            if (buffer.size() < bufferSize) {
+                buffer.add(event);
+            } else {
+                // Slow consumer: the backlog, and this event, are replaced by one resync
+                buffer.clear();
+                resyncAt = event.getSequence();
+                resyncs.increment();
+            }
+            schedule();
+        }
+
+        synchronized void resync(long at) {
+            buffer.clear();
+            resyncAt = at;
+            resyncs.increment();
+            schedule();
+        }
+
+        synchronized void ping() {
+            ping = true;
+            schedule();
+        }
+
+        // Caller holds the monitor; one flush per subscriber at a time keeps its events in order
+        private void schedule() {
+            if (!flushing) {
+                flushing = true;
+                senders.execute(this::flush);
+            }
+        }
+
+        private synchronized SseEmitter.SseEventBuilder next() {
+            if (resyncAt >= 0) {
+                // Carries the id it was issued at, so a reconnect resumes from there
+                String at = eventId(resyncAt);
+                resyncAt = -1;
+                return SseEmitter.event().id(at).name("resync").data(at);
+            }
+            if (ping) {
+                ping = false;
+                return SseEmitter.event().comment("ping");
+            }
+            TaskEvent event = buffer.poll();
+            if (event == null) {
+                flushing = false;
+                return null;
+            }
+            return SseEmitter.event()
+                    .id(eventId(event.getSequence()))
+                    .name(event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+
+        private void flush() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = next()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away or the emitter completed; flushing stays set so nothing is sent again
+                    subscribers.remove(this);
+                    return;
+                }
+            }
+        }
+    }
+}
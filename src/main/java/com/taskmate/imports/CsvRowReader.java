@@ -0,0 +1,157 @@
+package com.taskmate.imports;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 CSV: comma separated, fields optionally quoted with {@code "}, quotes inside doubled,
+ * and quoted fields may span lines. The header names the columns; {@code title} is required,
+ * {@code description}, {@code dueDate} (ISO date or date-time) and {@code completed} are optional,
+ * anything else is ignored.
+ */
+final class CsvRowReader implements TaskRowReader {
+
+    // Far above a valid row (255 + 2000 characters); an unterminated quote stops here instead of
+    // swallowing the rest of the file
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final LineSource lines;
+    private final int title;
+    private final int description;
+    private final int dueDate;
+    private final int completed;
+    private long lineNumber;
+
+    CsvRowReader(LineSource lines) throws IOException {
+        this.lines = lines;
+        String header = lines.readLine();
+        lineNumber = 1;
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input has no header row");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> columns = split(header);
+        if (columns == null) {
+            throw new IllegalArgumentException("CSV header is malformed");
+        }
+        this.title = column(columns, "title");
+        this.description = column(columns, "description");
+        this.dueDate = column(columns, "duedate");
+        this.completed = column(columns, "completed");
+        if (title < 0) {
+            throw new IllegalArgumentException("CSV header has no title column");
+        }
+    }
+
+    private static int column(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            if (column.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isEmpty());
+
+        long first = lineNumber;
+        StringBuilder record = new StringBuilder(line);
+        List<String> fields;
+        while ((fields = split(record)) == null) {
+            String more = record.length() < MAX_RECORD_LENGTH ? lines.readLine() : null;
+            if (more == null) {
+                return ImportRow.rejected(first, record.toString(), "Unterminated quoted field");
+            }
+            lineNumber++;
+            record.append('\n').append(more);
+        }
+        return toRow(first, record.toString(), fields);
+    }
+
+    private ImportRow toRow(long line, String raw, List<String> fields) {
+        LocalDateTime due;
+        try {
+            due = parseDueDate(field(fields, dueDate));
+        } catch (DateTimeParseException e) {
+            return ImportRow.rejected(line, raw, "Invalid dueDate: " + field(fields, dueDate));
+        }
+        String done = field(fields, completed);
+        boolean isCompleted;
+        if (done == null || done.equalsIgnoreCase("false") || done.equals("0") || done.equalsIgnoreCase("no")) {
+            isCompleted = false;
+        } else if (done.equalsIgnoreCase("true") || done.equals("1") || done.equalsIgnoreCase("yes")) {
+            isCompleted = true;
+        } else {
+            return ImportRow.rejected(line, raw, "Invalid completed: " + done);
+        }
+        return ImportRow.parsed(line, raw, TaskRowReader.newTask(
+                field(fields, title), field(fields, description), due, isCompleted));
+    }
+
+    private static LocalDateTime parseDueDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    // Empty and missing fields are null
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // Null when a quoted field is still open at the end of the text
+    static List<String> split(CharSequence text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
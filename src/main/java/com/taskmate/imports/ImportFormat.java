@@ -0,0 +1,54 @@
+package com.taskmate.imports;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum ImportFormat {
+
+    // Header row with title, and optionally description, dueDate and completed columns, in any order
+    CSV("text/csv", ".csv"),
+    // One task object per line, as written by the export
+    NDJSON("application/x-ndjson", ".ndjson", ".jsonl");
+
+    private final String contentType;
+    private final String[] extensions;
+
+    ImportFormat(String contentType, String... extensions) {
+        this.contentType = contentType;
+        this.extensions = extensions;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ImportFormat fromName(String name) {
+        for (ImportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + name);
+    }
+
+    public static ImportFormat fromContentType(String contentType) {
+        for (ImportFormat format : values()) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(format.contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+
+    public static ImportFormat fromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (ImportFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + file.getFileName() + "; pass format=csv or format=ndjson");
+    }
+}
@@ -0,0 +1,75 @@
+package com.taskmate.imports;
+
+import com.taskmate.pojos.ImportProgress;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Progress of one import; written by the importing thread, read by progress requests
+final class ImportJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final String source;
+    private final ImportFormat format;
+    private final long totalBytes;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Path rejectedFile;
+
+    private volatile ImportProgress.Status status = ImportProgress.Status.RUNNING;
+    private volatile long bytesRead;
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long rejected;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    ImportJob(String source, ImportFormat format, long totalBytes, Path rejectedDirectory) {
+        this.source = source;
+        this.format = format;
+        this.totalBytes = totalBytes;
+        this.rejectedFile = rejectedDirectory.resolve(id + ".rejected.ndjson");
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    ImportFormat getFormat() {
+        return format;
+    }
+
+    Path getRejectedFile() {
+        return rejectedFile;
+    }
+
+    void rowRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+        rowsRead++;
+    }
+
+    void rejected(long rows) {
+        rejected += rows;
+    }
+
+    void imported(long rows) {
+        imported += rows;
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        status = ImportProgress.Status.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+        status = ImportProgress.Status.FAILED;
+    }
+
+    ImportProgress snapshot() {
+        long rejectedRows = rejected;
+        return new ImportProgress(id, source, format.name(), status, bytesRead, totalBytes, rowsRead, imported,
+                rejectedRows, rejectedRows > 0 ? rejectedFile.toString() : null, startedAt, finishedAt, error);
+    }
+}
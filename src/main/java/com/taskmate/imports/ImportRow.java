@@ -0,0 +1,15 @@
+package com.taskmate.imports;
+
+import com.taskmate.entity.Task;
+
+// One input record: the task parsed from it, or why it could not be parsed
+record ImportRow(long line, String raw, Task task, String error) {
+
+    static ImportRow parsed(long line, String raw, Task task) {
+        return new ImportRow(line, raw, task, null);
+    }
+
+    static ImportRow rejected(long line, String raw, String error) {
+        return new ImportRow(line, raw, null, error);
+    }
+}
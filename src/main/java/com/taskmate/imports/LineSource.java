@@ -0,0 +1,13 @@
+package com.taskmate.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Lines of the input without their terminator, plus how far into it reading has got
+interface LineSource extends Closeable {
+
+    // Null at the end of the input
+    String readLine() throws IOException;
+
+    long bytesRead();
+}
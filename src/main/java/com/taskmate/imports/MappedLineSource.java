@@ -0,0 +1,99 @@
+package com.taskmate.imports;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a local file through a sliding memory-mapped window, so a file of any size is scanned
+ * from the page cache without being copied onto the heap; only the current line is. A line that
+ * runs past the window end is read again from a window mapped at its start, which bounds a line
+ * to the window size.
+ */
+final class MappedLineSource implements LineSource {
+
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private byte[] line = new byte[1024];
+
+    MappedLineSource(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedLineSource(Path path, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+        while (true) {
+            if (window == null || position >= windowStart + window.limit()) {
+                map(position);
+            }
+            int from = (int) (position - windowStart);
+            int end = indexOfNewline(from);
+            if (end >= 0) {
+                return take(from, end, end + 1);
+            }
+            if (windowStart + window.limit() == size) {
+                // Last line without a terminator
+                return take(from, window.limit(), window.limit());
+            }
+            if (from == 0) {
+                throw new IOException("Line at byte " + position + " is longer than " + windowSize + " bytes");
+            }
+            map(position);
+        }
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+
+    private int indexOfNewline(int from) {
+        for (int i = from, limit = window.limit(); i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String take(int from, int end, int next) {
+        int length = end - from;
+        if (length > 0 && window.get(end - 1) == '\r') {
+            length--;
+        }
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        window.get(from, line, 0, length);
+        position = windowStart + next;
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long bytesRead() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
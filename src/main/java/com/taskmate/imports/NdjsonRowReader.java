@@ -0,0 +1,42 @@
+package com.taskmate.imports;
+
+import com.taskmate.entity.Task;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+
+final class NdjsonRowReader implements TaskRowReader {
+
+    private final LineSource lines;
+    private final ObjectReader reader;
+    private long lineNumber;
+
+    NdjsonRowReader(LineSource lines, ObjectReader reader) {
+        this.lines = lines;
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Task parsed = reader.readValue(line);
+                // A JSON null binds to no task at all
+                if (parsed == null) {
+                    return ImportRow.rejected(lineNumber, line, "Expected a JSON object");
+                }
+                return ImportRow.parsed(lineNumber, line, TaskRowReader.newTask(
+                        parsed.getTitle(), parsed.getDescription(), parsed.getDueDate(), parsed.isCompleted()));
+            } catch (JacksonException e) {
+                return ImportRow.rejected(lineNumber, line, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskmate.imports;
+
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// NDJSON file of the rows an import skipped, with their line and errors; created on the first one
+final class RejectedRows implements Closeable {
+
+    private final Path path;
+    private final ObjectWriter writer;
+    private BufferedWriter out;
+
+    RejectedRows(Path path, ObjectWriter writer) {
+        this.path = path;
+        this.writer = writer;
+    }
+
+    void write(ImportRow row, List<String> errors) throws IOException {
+        if (out == null) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("line", row.line());
+        entry.put("errors", errors);
+        entry.put("row", row.raw());
+        out.write(writer.writeValueAsString(entry));
+        out.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.taskmate.imports;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// Lines of a request body as they arrive; the byte count runs ahead by at most the read buffer
+final class StreamLineSource implements LineSource {
+
+    private final CountingInputStream counting;
+    private final BufferedReader reader;
+
+    StreamLineSource(InputStream body) {
+        this.counting = new CountingInputStream(body);
+        this.reader = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        return reader.readLine();
+    }
+
+    @Override
+    public long bytesRead() {
+        return counting.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
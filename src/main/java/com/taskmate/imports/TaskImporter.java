@@ -0,0 +1,179 @@
+package com.taskmate.imports;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.BulkCreateResponse;
+import com.taskmate.pojos.BulkTaskResult;
+import com.taskmate.pojos.ImportProgress;
+import com.taskmate.service.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Imports CSV or NDJSON tasks from a local file (memory-mapped, on a background thread) or from a
+ * request body (as it streams in). Rows are parsed one at a time and created in batches of
+ * {@code batch-size} through {@link TaskService#createTasks}, so they get the same validation,
+ * batched INSERTs and index/counter/event updates as the bulk endpoint, and heap use does not grow
+ * with the input. Rows that cannot be parsed or fail validation are written to a rejected-rows
+ * file and the import carries on.
+ */
+@Component
+public class TaskImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImporter.class);
+    private static final int RETAINED_JOBS = 100;
+
+    private final TaskService taskService;
+    private final ObjectReader taskReader;
+    private final ObjectWriter rejectedWriter;
+    private final int batchSize;
+    private final Path directory;
+    private final Path rejectedDirectory;
+
+    // Most recent jobs, running or finished, for progress requests
+    private final Map<UUID, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, ImportJob> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    });
+
+    public TaskImporter(TaskService taskService,
+                        ObjectMapper objectMapper,
+                        @Value("${taskmate.import.batch-size:500}") int batchSize,
+                        @Value("${taskmate.import.directory:data/import}") Path directory,
+                        @Value("${taskmate.import.rejected-directory:data/import-rejected}") Path rejectedDirectory) {
+        this.taskService = taskService;
+        // Exports carry derived and server-assigned properties; only the task's own fields are taken
+        this.taskReader = objectMapper.readerFor(Task.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.rejectedWriter = objectMapper.writer();
+        this.batchSize = batchSize;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.rejectedDirectory = rejectedDirectory;
+    }
+
+    // file is relative to the import directory; the format comes from its extension unless given
+    public ImportProgress startFileImport(String file, ImportFormat format) {
+        Path path = directory.resolve(file).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IllegalArgumentException("File must be inside the import directory");
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("No such file in the import directory: " + file);
+        }
+        ImportFormat resolved = format != null ? format : ImportFormat.fromFileName(path);
+        ImportJob job;
+        try {
+            job = register(new ImportJob(file, resolved, Files.size(path), rejectedDirectory));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread.ofPlatform().name("task-import-" + job.getId()).start(() -> {
+            LineSource lines;
+            try {
+                lines = new MappedLineSource(path);
+            } catch (IOException e) {
+                fail(job, e);
+                return;
+            }
+            run(job, lines);
+        });
+        return job.snapshot();
+    }
+
+    // Imports on the calling thread; totalBytes is -1 when the length is unknown
+    public ImportProgress importStream(InputStream body, ImportFormat format, long totalBytes) {
+        ImportJob job = register(new ImportJob("request body", format, totalBytes, rejectedDirectory));
+        run(job, new StreamLineSource(body));
+        return job.snapshot();
+    }
+
+    public ImportProgress getProgress(UUID id) {
+        ImportJob job = jobs.get(id);
+        return job != null ? job.snapshot() : null;
+    }
+
+    private ImportJob register(ImportJob job) {
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    // Closes lines when done
+    private void run(ImportJob job, LineSource lines) {
+        log.info("Import {} of {} started", job.getId(), job.getFormat());
+        try (RejectedRows rejected = new RejectedRows(job.getRejectedFile(), rejectedWriter)) {
+            TaskRowReader rows = job.getFormat() == ImportFormat.CSV
+                    ? new CsvRowReader(lines)
+                    : new NdjsonRowReader(lines, taskReader);
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                job.rowRead(lines.bytesRead());
+                if (row.error() != null) {
+                    rejected.write(row, List.of(row.error()));
+                    job.rejected(1);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    create(job, batch, rejected);
+                    batch.clear();
+                }
+            }
+            create(job, batch, rejected);
+        } catch (IOException | RuntimeException e) {
+            fail(job, e);
+            return;
+        } finally {
+            try {
+                lines.close();
+            } catch (IOException e) {
+                // nothing left to read
+            }
+        }
+        // Only once the rejected-rows file is closed
+        job.completed();
+        ImportProgress progress = job.snapshot();
+        log.info("Import {} completed: {} imported, {} rejected", job.getId(), progress.getImported(), progress.getRejected());
+    }
+
+    private void create(ImportJob job, List<ImportRow> batch, RejectedRows rejected) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Task> tasks = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            tasks.add(row.task());
+        }
+        BulkCreateResponse response = taskService.createTasks(tasks);
+        for (BulkTaskResult result : response.getResults()) {
+            if (!result.isSuccess()) {
+                rejected.write(batch.get(result.getIndex()), result.getErrors());
+            }
+        }
+        job.imported(response.getCreated());
+        job.rejected(response.getFailed());
+    }
+
+    private void fail(ImportJob job, Exception e) {
+        log.error("Import {} failed", job.getId(), e);
+        job.failed(e.getMessage());
+    }
+}
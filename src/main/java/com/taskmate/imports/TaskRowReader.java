@@ -0,0 +1,21 @@
+package com.taskmate.imports;
+
+import com.taskmate.entity.Task;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+interface TaskRowReader {
+
+    // Null at the end of the input
+    ImportRow next() throws IOException;
+
+    // Only the task's own fields are imported; ids and timestamps from the source system are not
+    static Task newTask(String title, String description, LocalDateTime dueDate, boolean completed) {
+        Task task = new Task(title, description, dueDate);
+        if (completed) {
+            task.markCompleted();
+        }
+        return task;
+    }
+}
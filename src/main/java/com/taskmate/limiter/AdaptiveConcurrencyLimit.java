@@ -0,0 +1,87 @@
+package com.taskmate.limiter;
+
+import java.time.Duration;
+
+/**
+ * A concurrency limit that follows the latency it measures (AIMD). A request that finishes within
+ * the latency target, while the limit is at least half used, raises the limit by 1/limit, i.e. by
+ * about one per limit's worth of requests. A request that is slower than the target or fails
+ * multiplies it by {@code backoff}. Only a request that started after the last decrease can cause
+ * the next one, so the queue behind one slow spell shrinks the limit once rather than once per
+ * request. Requests over the limit are not queued: {@link #tryAcquire()} fails and the caller sheds
+ * them, which keeps latency for the admitted ones near the target.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoff;
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+    private long rejected;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget, double backoff) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("Backoff must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.backoff = backoff;
+        this.limit = initialLimit;
+        this.lastDecrease = System.nanoTime();
+    }
+
+    // Admits the request unless the limit is reached; an admitted request must be released exactly once
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    // startNanos is System.nanoTime() taken when the request was admitted
+    public void release(long startNanos, boolean failed) {
+        release(startNanos, System.nanoTime(), failed);
+    }
+
+    synchronized void release(long startNanos, long endNanos, boolean failed) {
+        // Counted before the decrement: the request was part of the load it measured
+        int load = inFlight--;
+        if (failed || endNanos - startNanos > latencyTargetNanos) {
+            if (startNanos - lastDecrease > 0) {
+                limit = Math.max(minLimit, limit * backoff);
+                lastDecrease = endNanos;
+            }
+        } else if (load * 2 >= limit) {
+            // An idle limit says nothing about what the database can take, so it only grows when in use
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    // Frees the slot without a latency sample
+    public synchronized void releaseUnsampled() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejected;
+    }
+}
@@ -0,0 +1,22 @@
+package com.taskmate.limiter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method on a budget other than {@link RequestBudget#POINT}, the default for limited
+ * endpoints. Streaming and bulk endpoints whose duration follows the size of the data rather than the
+ * load on the database set {@code sampleLatency = false}: they hold a slot but do not move the limit.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ConcurrencyBudget {
+
+    RequestBudget value();
+
+    boolean sampleLatency() default true;
+}
@@ -0,0 +1,77 @@
+package com.taskmate.limiter;
+
+import com.taskmate.pojos.SystemError;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admits API requests against the {@link AdaptiveConcurrencyLimit} of their budget and answers 503
+ * with {@code Retry-After} at once when it is reached, before the request has taken a connection
+ * or a row lock. The slot is held until the request completes, including the async dispatch of a
+ * streaming response, so the limit counts the work actually in progress.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMISSION = ConcurrencyLimitInterceptor.class.getName() + ".admission";
+
+    private final Map<RequestBudget, AdaptiveConcurrencyLimit> limits;
+    private final ObjectMapper objectMapper;
+    private final String retryAfter;
+
+    public ConcurrencyLimitInterceptor(Map<RequestBudget, AdaptiveConcurrencyLimit> limits, ObjectMapper objectMapper, Duration retryAfter) {
+        this.limits = Map.copyOf(limits);
+        this.objectMapper = objectMapper;
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // Async and error dispatches belong to a request that was admitted already
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        ConcurrencyBudget budget = method.getMethodAnnotation(ConcurrencyBudget.class);
+        AdaptiveConcurrencyLimit limit = limits.get(budget != null ? budget.value() : RequestBudget.POINT);
+        if (!limit.tryAcquire()) {
+            reject(response);
+            return false;
+        }
+        request.setAttribute(ADMISSION, new Admission(limit, System.nanoTime(), budget == null || budget.sampleLatency()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMISSION) instanceof Admission admission) {
+            request.removeAttribute(ADMISSION);
+            if (admission.sampleLatency()) {
+                // Server errors, such as the connection gate's 503, are the overload signal; 4xx are not
+                admission.limit().release(admission.startNanos(), ex != null || response.getStatus() >= 500);
+            } else {
+                admission.limit().releaseUnsampled();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                SystemError.serviceUnavailable("Too many requests in progress, try again shortly"));
+    }
+
+    private record Admission(AdaptiveConcurrencyLimit limit, long startNanos, boolean sampleLatency) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.taskmate.limiter;
+
+/**
+ * The concurrency budgets API requests are admitted from. Point requests touch one task by primary
+ * key; list requests scan, sort or write many rows and are limited separately so a burst of them
+ * cannot take the capacity point reads need.
+ */
+public enum RequestBudget {
+    POINT, LIST
+}
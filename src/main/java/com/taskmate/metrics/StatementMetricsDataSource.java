@@ -0,0 +1,122 @@
+package com.taskmate.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC statement execution, tagged by statement type (select, insert, update, delete
+ * or other). The type of a prepared statement is derived once when it is prepared, not per execution.
+ * Unwrapping still reaches the pool, so pool metrics and pool-specific configuration keep working.
+ */
+public class StatementMetricsDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> TYPES = Set.of("select", "insert", "update", "delete");
+
+    private final String metricName;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StatementMetricsDataSource(DataSource targetDataSource, String metricName, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.metricName = metricName;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // Replaces the pool as the bean, so it has to close the pool on shutdown
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                String type = method.getName().startsWith("prepare") ? type((String) args[0]) : null;
+                return wrap(statement, type);
+            }
+            return result;
+        });
+    }
+
+    private Statement wrap(Statement statement, String preparedType) {
+        Class<? extends Statement> api = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return proxy(api, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String type = preparedType != null ? preparedType
+                    : args != null && args.length > 0 && args[0] instanceof String sql ? type(sql) : "other";
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                timer(type).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private Timer timer(String type) {
+        Timer timer = timers.get(type);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(type, key -> Timer.builder(metricName)
+                    .tag("type", key)
+                    .register(meterRegistry.getObject()));
+        }
+        return timer;
+    }
+
+    private static String type(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return TYPES.contains(keyword) ? keyword : "other";
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> api, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementMetricsDataSource.class.getClassLoader(), new Class<?>[] {api}, handler);
+    }
+}
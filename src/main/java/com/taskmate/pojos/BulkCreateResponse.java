@@ -0,0 +1,48 @@
+package com.taskmate.pojos;
+
+import java.util.List;
+
+public class BulkCreateResponse {
+
+    private int created;
+    private int failed;
+    private List<BulkTaskResult> results;
+
+    public BulkCreateResponse() {}
+
+    public BulkCreateResponse(List<BulkTaskResult> results) {
+        this.results = results;
+        for (BulkTaskResult result : results) {
+            if (result.isSuccess()) {
+                created++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    // Getters and Setters
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkTaskResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkTaskResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,23 @@
+package com.taskmate.pojos;
+
+import java.util.List;
+
+public class BulkTaskRequest {
+
+    private List<String> ids;
+
+    public BulkTaskRequest() {}
+
+    public BulkTaskRequest(List<String> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,62 @@
+package com.taskmate.pojos;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkTaskResult {
+
+    private int index;
+    private boolean success;
+    private UUID id;
+    private List<String> errors;
+
+    public BulkTaskResult() {}
+
+    public BulkTaskResult(int index, boolean success, UUID id, List<String> errors) {
+        this.index = index;
+        this.success = success;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public static BulkTaskResult created(int index, UUID id) {
+        return new BulkTaskResult(index, true, id, List.of());
+    }
+
+    public static BulkTaskResult failed(int index, List<String> errors) {
+        return new BulkTaskResult(index, false, null, errors);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
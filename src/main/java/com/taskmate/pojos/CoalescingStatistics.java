@@ -0,0 +1,41 @@
+package com.taskmate.pojos;
+
+public class CoalescingStatistics {
+
+    private long executedCount;
+    private long collapsedCount;
+    private long timedOutCount;
+
+    public CoalescingStatistics() {}
+
+    public CoalescingStatistics(long executedCount, long collapsedCount, long timedOutCount) {
+        this.executedCount = executedCount;
+        this.collapsedCount = collapsedCount;
+        this.timedOutCount = timedOutCount;
+    }
+
+    // Getters and Setters
+    public long getExecutedCount() {
+        return executedCount;
+    }
+
+    public void setExecutedCount(long executedCount) {
+        this.executedCount = executedCount;
+    }
+
+    public long getCollapsedCount() {
+        return collapsedCount;
+    }
+
+    public void setCollapsedCount(long collapsedCount) {
+        this.collapsedCount = collapsedCount;
+    }
+
+    public long getTimedOutCount() {
+        return timedOutCount;
+    }
+
+    public void setTimedOutCount(long timedOutCount) {
+        this.timedOutCount = timedOutCount;
+    }
+}
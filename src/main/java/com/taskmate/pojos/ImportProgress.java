@@ -0,0 +1,104 @@
+package com.taskmate.pojos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ImportProgress {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final UUID id;
+    private final String source;
+    private final String format;
+    private final Status status;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final String rejectedFile;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final String error;
+
+    public ImportProgress(UUID id, String source, String format, Status status, long bytesRead, long totalBytes,
+                          long rowsRead, long imported, long rejected, String rejectedFile,
+                          LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+        this.id = id;
+        this.source = source;
+        this.format = format;
+        this.status = status;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejectedFile = rejectedFile;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    // -1 when the size of the input is not known up front
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public Double getPercent() {
+        if (totalBytes <= 0) {
+            return null;
+        }
+        return Math.min(100.0, Math.round(bytesRead * 1000.0 / totalBytes) / 10.0);
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public String getRejectedFile() {
+        return rejectedFile;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
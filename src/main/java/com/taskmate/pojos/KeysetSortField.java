@@ -0,0 +1,55 @@
+package com.taskmate.pojos;
+
+import com.taskmate.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Sort fields allowed in cursor (keyset) mode. Only non-null, index-backed columns are
+ * listed here, so every page continues with an index range scan instead of an offset.
+ * Task ids are UUIDv7, so {@code id} orders by creation time on a single-column key.
+ */
+public enum KeysetSortField {
+
+    CREATED_AT("createdAt", Task::getCreatedAt, LocalDateTime::parse),
+    ID("id", Task::getId, UUID::fromString);
+
+    private final String property;
+    private final Function<Task, Object> extractor;
+    private final Function<String, Object> parser;
+
+    KeysetSortField(String property, Function<Task, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object valueOf(Task task) {
+        return extractor.apply(task);
+    }
+
+    // Reads back a value written into a cursor by toString()
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+
+    // The id is the whole keyset; no tie-breaker is needed
+    public boolean isUnique() {
+        return this == ID;
+    }
+
+    public static KeysetSortField fromProperty(String property) {
+        for (KeysetSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field for cursor pagination: " + property);
+    }
+}
@@ -0,0 +1,74 @@
+package com.taskmate.pojos;
+
+import java.time.LocalDateTime;
+
+public class SearchIndexStatistics {
+
+    private int documents;
+    private int retiredDocuments;
+    private int terms;
+    private boolean rebuilding;
+    private long lastBuildMillis;
+    private LocalDateTime builtAt;
+
+    public SearchIndexStatistics() {}
+
+    public SearchIndexStatistics(int documents, int retiredDocuments, int terms, boolean rebuilding,
+                                 long lastBuildMillis, LocalDateTime builtAt) {
+        this.documents = documents;
+        this.retiredDocuments = retiredDocuments;
+        this.terms = terms;
+        this.rebuilding = rebuilding;
+        this.lastBuildMillis = lastBuildMillis;
+        this.builtAt = builtAt;
+    }
+
+    // Getters and Setters
+    public int getDocuments() {
+        return documents;
+    }
+
+    public void setDocuments(int documents) {
+        this.documents = documents;
+    }
+
+    public int getRetiredDocuments() {
+        return retiredDocuments;
+    }
+
+    public void setRetiredDocuments(int retiredDocuments) {
+        this.retiredDocuments = retiredDocuments;
+    }
+
+    public int getTerms() {
+        return terms;
+    }
+
+    public void setTerms(int terms) {
+        this.terms = terms;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    public void setRebuilding(boolean rebuilding) {
+        this.rebuilding = rebuilding;
+    }
+
+    public long getLastBuildMillis() {
+        return lastBuildMillis;
+    }
+
+    public void setLastBuildMillis(long lastBuildMillis) {
+        this.lastBuildMillis = lastBuildMillis;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public void setBuiltAt(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+    }
+}
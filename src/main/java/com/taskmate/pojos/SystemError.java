@@ -41,6 +41,22 @@ public class SystemError {
         return new SystemError("BAD_REQUEST", "INVALID_REQUEST", message);
     }
     
+    public static SystemError conflict(String message) {
+        return new SystemError("CONFLICT", "VERSION_CONFLICT", message);
+    }
+    
+    public static SystemError preconditionFailed(String message) {
+        return new SystemError("PRECONDITION_FAILED", "STALE_PRECONDITION", message);
+    }
+    
+    public static SystemError tooManyRequests(String message) {
+        return new SystemError("TOO_MANY_REQUESTS", "QUEUE_FULL", message);
+    }
+    
+    public static SystemError serviceUnavailable(String message) {
+        return new SystemError("SERVICE_UNAVAILABLE", "SERVER_BUSY", message);
+    }
+    
     public static SystemError internalError(String message) {
         return new SystemError("INTERNAL_ERROR", "SERVER_ERROR", message);
     }
@@ -0,0 +1,73 @@
+package com.taskmate.pojos;
+
+import com.taskmate.entity.Task;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for cursor pagination: the (sortKey, id) pair of the last
+ * row returned, together with the sort it belongs to.
+ */
+public final class TaskCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final KeysetSortField sortField;
+    private final Sort.Direction direction;
+    private final Object sortValue;
+    private final UUID id;
+
+    public TaskCursor(KeysetSortField sortField, Sort.Direction direction, Object sortValue, UUID id) {
+        this.sortField = sortField;
+        this.direction = direction;
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static TaskCursor after(Task task, KeysetSortField sortField, Sort.Direction direction) {
+        return new TaskCursor(sortField, direction, sortField.valueOf(task), task.getId());
+    }
+
+    public String encode() {
+        String raw = sortField.getProperty() + SEPARATOR + direction + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            KeysetSortField sortField = KeysetSortField.fromProperty(parts[0]);
+            return new TaskCursor(
+                    sortField,
+                    Sort.Direction.fromString(parts[1]),
+                    sortField.parse(parts[2]),
+                    UUID.fromString(parts[3]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public KeysetSortField getSortField() {
+        return sortField;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskmate.pojos;
+
+import com.taskmate.entity.Task;
+
+import java.util.UUID;
+
+/**
+ * A committed task change as pushed to change feed subscribers. {@code task} carries the new state
+ * for creates and updates; {@code CHANGED} means tasks changed that cannot be named (filter based
+ * bulk updates) and the list should be fetched again.
+ */
+public class TaskEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, SOFT_DELETED, RESTORED, CHANGED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final UUID taskId;
+    private final Task task;
+
+    public TaskEvent(long sequence, Type type, UUID taskId, Task task) {
+        this.sequence = sequence;
+        this.type = type;
+        this.taskId = taskId;
+        this.task = task;
+    }
+
+    // Getters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getTaskId() {
+        return taskId;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+}
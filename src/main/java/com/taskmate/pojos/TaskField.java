@@ -0,0 +1,58 @@
+package com.taskmate.pojos;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Task columns that can be requested through the sparse fieldset ({@code fields=}) parameter.
+ */
+public enum TaskField {
+
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    COMPLETED("completed"),
+    DELETED("deleted"),
+    DUE_DATE("dueDate"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    // What the list view shows; notably excludes the up to 2000 character description
+    public static final Set<TaskField> SUMMARY =
+            Collections.unmodifiableSet(EnumSet.of(ID, TITLE, COMPLETED, DUE_DATE, UPDATED_AT));
+
+    private final String property;
+
+    TaskField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    // Comma separated property names, or "summary" for the list view projection
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new IllegalArgumentException("fields must not be empty");
+        }
+        if (fields.trim().equalsIgnoreCase("summary")) {
+            return SUMMARY;
+        }
+        EnumSet<TaskField> selected = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromProperty(name.trim()));
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    public static TaskField fromProperty(String property) {
+        for (TaskField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task field: " + property);
+    }
+}
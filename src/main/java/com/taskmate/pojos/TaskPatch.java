@@ -0,0 +1,84 @@
+package com.taskmate.pojos;
+
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * Body of PATCH /api/v1/tasks/{id}. Only properties present in the JSON are updated; description
+ * and dueDate can be cleared with an explicit null, which is why their presence is tracked.
+ * {@code version}, when given, must match the task's current version.
+ */
+public class TaskPatch {
+
+    @Size(min = 1, max = 255, message = "Title must be between 1 and 255 characters")
+    private String title;
+
+    @Size(max = 2000, message = "Description must not exceed 2000 characters")
+    private String description;
+    private boolean descriptionSet;
+
+    private LocalDateTime dueDate;
+    private boolean dueDateSet;
+
+    private Boolean completed;
+
+    private Long version;
+
+    public TaskPatch() {}
+
+    public boolean isEmpty() {
+        return title == null && !descriptionSet && !dueDateSet && completed == null;
+    }
+
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionSet = true;
+    }
+
+    public boolean hasDescription() {
+        return descriptionSet;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+        this.dueDateSet = true;
+    }
+
+    public boolean hasDueDate() {
+        return dueDateSet;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
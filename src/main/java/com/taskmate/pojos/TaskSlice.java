@@ -0,0 +1,55 @@
+package com.taskmate.pojos;
+
+import com.taskmate.entity.Task;
+
+import java.util.List;
+
+public class TaskSlice {
+
+    private List<Task> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public TaskSlice() {}
+
+    public TaskSlice(List<Task> content, String nextCursor) {
+        this.content = content;
+        this.size = content.size();
+        this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<Task> getContent() {
+        return content;
+    }
+
+    public void setContent(List<Task> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
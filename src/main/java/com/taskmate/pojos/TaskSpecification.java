@@ -1,14 +1,18 @@
 package com.taskmate.pojos;
 
 import com.taskmate.entity.Priority;
+import com.taskmate.entity.StoredTask;
 import com.taskmate.entity.Task;
 import com.taskmate.entity.TaskStatus;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 public class TaskSpecification {
 
@@ -20,6 +24,19 @@ public class TaskSpecification {
             LocalDateTime dueTo,
             Boolean deleted) {
 
+        return filterTasks(status, priority, overdue, dueFrom, dueTo, deleted, LocalDateTime.now());
+    }
+
+    // "now" is the reference instant for the overdue predicate, so callers can pin it (e.g. to a cache time bucket)
+    public static Specification<Task> filterTasks(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            Boolean deleted,
+            LocalDateTime now) {
+
         return (root, query, cb) -> {
 
             List<Predicate> predicates = new ArrayList<>();
@@ -45,7 +62,7 @@ public class TaskSpecification {
             if (Boolean.TRUE.equals(overdue)) {
                 predicates.add(
                         cb.and(
-                                cb.lessThan(root.get("dueDate"), LocalDateTime.now()),
+                                cb.lessThan(root.get("dueDate"), now),
                                 cb.equal(root.get("completed"), false),
                                 cb.equal(root.get("deleted"), false)
                         )
@@ -55,4 +72,32 @@ public class TaskSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    // Restricts a query to the given tasks, e.g. the matches of a full-text search
+    public static Specification<Task> idIn(Collection<UUID> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    // Rows a conditional write may change; a bulk UPDATE applies it in the same statement
+    public static Specification<Task> satisfies(WritePrecondition precondition) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (precondition.getVersions() != null) {
+                predicates.add(precondition.getVersions().isEmpty()
+                        ? cb.disjunction()
+                        : root.get("version").in(precondition.getVersions()));
+            }
+            if (precondition.getModifiedBefore() != null) {
+                predicates.add(cb.lessThan(root.get("updatedAt"), precondition.getModifiedBefore()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // The same filter over another entity mapping the task columns (StoredTask subclasses); the
+    // predicates above only refer to attributes by name, which those entities share with Task
+    @SuppressWarnings("unchecked")
+    public static <T extends StoredTask> Specification<T> forStoredTasks(Specification<Task> spec) {
+        return (root, query, cb) -> spec.toPredicate((Root<Task>) (Root<?>) root, query, cb);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.taskmate.pojos;
+
+import java.time.LocalDateTime;
+
+public class TaskStatistics {
+
+    private long total;
+    private long completed;
+    private long overdue;
+    private long deleted;
+    private LocalDateTime reconciledAt;
+    private long lastCorrection;
+
+    public TaskStatistics() {}
+
+    public TaskStatistics(long total, long completed, long overdue, long deleted, LocalDateTime reconciledAt,
+                          long lastCorrection) {
+        this.total = total;
+        this.completed = completed;
+        this.overdue = overdue;
+        this.deleted = deleted;
+        this.reconciledAt = reconciledAt;
+        this.lastCorrection = lastCorrection;
+    }
+
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getLastCorrection() {
+        return lastCorrection;
+    }
+
+    public void setLastCorrection(long lastCorrection) {
+        this.lastCorrection = lastCorrection;
+    }
+}
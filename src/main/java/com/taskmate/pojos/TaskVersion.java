@@ -0,0 +1,78 @@
+package com.taskmate.pojos;
+
+import com.taskmate.entity.Task;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Validator for a task or a list of tasks, with the newest {@code updatedAt} as Last-Modified. A
+ * task's strong ETag is its row version, which a write can check in its UPDATE (see
+ * {@link WritePrecondition}). A list's is a hash over the scope (normalized filter and view), the
+ * newest {@code updatedAt} and the row count; the count catches rows leaving a filter without
+ * raising its newest timestamp. A keyset page, or an offset page read without its count, hashes
+ * the rows it holds instead.
+ */
+public class TaskVersion {
+
+    private final String eTag;
+    private final LocalDateTime lastModified;
+
+    private TaskVersion(String eTag, LocalDateTime lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public static TaskVersion of(String scope, LocalDateTime lastModified, long count) {
+        String stamp = scope + "|" + lastModified + "|" + count;
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(stamp.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new TaskVersion(eTag, lastModified);
+    }
+
+    public static TaskVersion ofTask(long version, LocalDateTime updatedAt) {
+        return new TaskVersion("\"" + version + "\"", updatedAt);
+    }
+
+    // Without a COUNT: the page's rows and the cursor to the next page are all it shows
+    public static TaskVersion ofSlice(String scope, TaskSlice slice) {
+        return ofRows(scope + "|" + slice.getNextCursor(), slice.getContent());
+    }
+
+    // An offset page read without its count shows its rows and whether another page follows
+    public static TaskVersion ofSlice(String scope, Slice<Task> page) {
+        return ofRows(scope + "|" + page.hasNext(), page.getContent());
+    }
+
+    private static TaskVersion ofRows(String prefix, List<Task> rows) {
+        StringBuilder stamp = new StringBuilder(prefix);
+        LocalDateTime lastModified = null;
+        for (Task task : rows) {
+            stamp.append('|').append(task.getId()).append(':').append(task.getVersion());
+            if (task.getUpdatedAt() != null && (lastModified == null || task.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = task.getUpdatedAt();
+            }
+        }
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(stamp.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new TaskVersion(eTag, lastModified);
+    }
+
+    // Epoch millis for Last-Modified, or -1 when there is nothing to date (empty list)
+    public long lastModifiedMillis() {
+        return lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+
+    // Getters
+    public String getETag() {
+        return eTag;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,89 @@
+package com.taskmate.pojos;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * If-Match / If-Unmodified-Since of a write to a single task, applied in the UPDATE's WHERE clause
+ * (see {@link TaskSpecification#satisfies}) so the check and the write cannot interleave with
+ * another write. A task's ETag is its row version (see {@link TaskVersion#ofTask}).
+ */
+public class WritePrecondition {
+
+    public static final WritePrecondition NONE = new WritePrecondition(null, null);
+
+    // Versions the row must be at, or null for any; empty when no listed ETag can match
+    private final Set<Long> versions;
+    // Exclusive bound on updatedAt, or null
+    private final LocalDateTime modifiedBefore;
+
+    private WritePrecondition(Set<Long> versions, LocalDateTime modifiedBefore) {
+        this.versions = versions;
+        this.modifiedBefore = modifiedBefore;
+    }
+
+    // If-Match takes precedence; If-Unmodified-Since is ignored when it is present or unparsable (RFC 9110)
+    public static WritePrecondition of(String ifMatch, String ifUnmodifiedSince) {
+        if (ifMatch != null) {
+            return new WritePrecondition(ifMatch.trim().equals("*") ? null : versions(ifMatch), null);
+        }
+        if (ifUnmodifiedSince != null) {
+            try {
+                ZonedDateTime since = ZonedDateTime.parse(ifUnmodifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                // The header has whole seconds; a row updated within that second is still unmodified
+                return new WritePrecondition(null, LocalDateTime.ofInstant(since.toInstant().plusSeconds(1), ZoneId.systemDefault()));
+            } catch (DateTimeParseException e) {
+                // ignored
+            }
+        }
+        return NONE;
+    }
+
+    // Weak ETags never match for a write; anything but a version is an ETag no task has
+    private static Set<Long> versions(String ifMatch) {
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        return versions;
+    }
+
+    public boolean isNone() {
+        return versions == null && modifiedBefore == null;
+    }
+
+    // The single version If-Match names, or null
+    public Long getVersion() {
+        return versions != null && versions.size() == 1 ? versions.iterator().next() : null;
+    }
+
+    // Whether a row at this version and updatedAt satisfies the precondition, for telling apart why an UPDATE matched nothing
+    public boolean matches(long version, LocalDateTime updatedAt) {
+        if (versions != null && !versions.contains(version)) {
+            return false;
+        }
+        return modifiedBefore == null || (updatedAt != null && updatedAt.isBefore(modifiedBefore));
+    }
+
+    // Getters
+    public Set<Long> getVersions() {
+        return versions;
+    }
+
+    public LocalDateTime getModifiedBefore() {
+        return modifiedBefore;
+    }
+}
@@ -0,0 +1,110 @@
+package com.taskmate.repository;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits how many connections are checked out of the DataSource at once. On virtual threads request
+ * concurrency is no longer capped by the servlet thread pool, so without this gate every request
+ * would queue inside the connection pool and fail on its connection timeout instead of waiting here.
+ * A permit is taken when a connection is handed out and returned when that connection is closed, so
+ * it covers every holder alike: repository calls, service transactions, streams kept open by their
+ * transaction and background work. Unwrapping still reaches the pool.
+ */
+public class ConnectionConcurrencyGate extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore semaphore;
+    private final int permits;
+    private final long acquireTimeoutNanos;
+
+    public ConnectionConcurrencyGate(DataSource targetDataSource, int permits, Duration acquireTimeout) {
+        super(targetDataSource);
+        if (permits < 1) {
+            throw new IllegalArgumentException("Gate permits must be at least 1");
+        }
+        this.semaphore = new Semaphore(permits, true);
+        this.permits = permits;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    // Replaces the pool as the bean, so it has to close the pool on shutdown
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out waiting for one of " + permits + " database connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    // The permit goes back with the first close; closing again is a no-op for the pool as well
+    private Connection gated(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionConcurrencyGate.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                    }
+                });
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+}
@@ -0,0 +1,12 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.DeletedTask;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.Repository;
+
+import java.util.UUID;
+
+// Read only: lists of deleted tasks, across the hot table and the archive
+public interface DeletedTaskRepository extends Repository<DeletedTask, UUID>,
+        JpaSpecificationExecutor<DeletedTask>, DeletedTaskRepositoryCustom {
+}
@@ -0,0 +1,29 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.DeletedTask;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// The TaskRepositoryCustom reads, over DeletedTask
+public interface DeletedTaskRepositoryCustom {
+
+    // Must be consumed inside a transaction and closed by the caller
+    Stream<DeletedTask> streamAll(Specification<DeletedTask> spec);
+
+    Slice<DeletedTask> findSlice(Specification<DeletedTask> spec, Pageable pageable);
+
+    Page<Map<String, Object>> findFields(Specification<DeletedTask> spec, Pageable pageable, Set<TaskField> fields);
+
+    TaskVersion findVersion(Specification<DeletedTask> spec, String scope);
+
+    Map<UUID, Object> findSortValues(Specification<DeletedTask> spec, String property);
+}
@@ -0,0 +1,54 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.DeletedTask;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class DeletedTaskRepositoryImpl implements DeletedTaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${taskmate.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${taskmate.export.clear-interval:500}")
+    private int clearInterval;
+
+    @Override
+    public Stream<DeletedTask> streamAll(Specification<DeletedTask> spec) {
+        return SpecificationQueries.streamAll(entityManager, DeletedTask.class, spec, fetchSize, clearInterval);
+    }
+
+    @Override
+    public Slice<DeletedTask> findSlice(Specification<DeletedTask> spec, Pageable pageable) {
+        return SpecificationQueries.findSlice(entityManager, DeletedTask.class, spec, pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<DeletedTask> spec, Pageable pageable, Set<TaskField> fields) {
+        return SpecificationQueries.findFields(entityManager, DeletedTask.class, spec, pageable, fields);
+    }
+
+    @Override
+    public TaskVersion findVersion(Specification<DeletedTask> spec, String scope) {
+        return SpecificationQueries.findVersion(entityManager, DeletedTask.class, spec, scope);
+    }
+
+    @Override
+    public Map<UUID, Object> findSortValues(Specification<DeletedTask> spec, String property) {
+        return SpecificationQueries.findSortValues(entityManager, DeletedTask.class, spec, property);
+    }
+}
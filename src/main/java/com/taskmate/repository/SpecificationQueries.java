@@ -0,0 +1,178 @@
+package com.taskmate.repository;
+
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Criteria queries shared by the repositories over task rows (tasks, tasks_archive and the deleted tasks view)
+final class SpecificationQueries {
+
+    private SpecificationQueries() {
+    }
+
+    // Must be consumed inside a transaction and closed by the caller
+    static <T> Stream<T> streamAll(EntityManager entityManager, Class<T> type, Specification<T> spec,
+                                   int fetchSize, int clearInterval) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+
+        Stream<T> rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+
+        // Detach everything read so far every clearInterval rows so the persistence context stays bounded;
+        // 0 never clears it
+        if (clearInterval <= 0) {
+            return rows;
+        }
+        AtomicLong seen = new AtomicLong();
+        return rows.peek(row -> {
+            if (seen.incrementAndGet() % clearInterval == 0) {
+                entityManager.clear();
+            }
+        });
+    }
+
+    // One row past the page tells whether there is a next one, so no count query is needed
+    static <T> Slice<T> findSlice(EntityManager entityManager, Class<T> type, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+
+        List<T> rows = typedQuery.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    static <T> Page<Map<String, Object>> findFields(EntityManager entityManager, Class<T> type, Specification<T> spec,
+                                                    Pageable pageable, Set<TaskField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (TaskField field : fields) {
+            selections.add(root.get(field.getProperty()).alias(field.getProperty()));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TaskField field : fields) {
+                row.put(field.getProperty(), tuple.get(field.getProperty()));
+            }
+            rows.add(row);
+        }
+
+        // Like SimpleJpaRepository, the count query is skipped when the page size already tells the total
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(entityManager, type, spec));
+    }
+
+    static <T> TaskVersion findVersion(EntityManager entityManager, Class<T> type, Specification<T> spec, String scope) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(cb.greatest(root.<LocalDateTime>get("updatedAt")), cb.count(root));
+
+        Tuple version = entityManager.createQuery(query).getSingleResult();
+        return TaskVersion.of(scope, version.get(0, LocalDateTime.class), version.get(1, Long.class));
+    }
+
+    // The id and one property of every matching row, for ordering rows in memory
+    static <T> Map<UUID, Object> findSortValues(EntityManager entityManager, Class<T> type, Specification<T> spec,
+                                                String property) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+
+        query.multiselect(root.get("id"), root.get(property));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Map<UUID, Object> values = new HashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            values.put(row.get(0, UUID.class), row.get(1));
+        }
+        return values;
+    }
+
+    static <T> long count(EntityManager entityManager, Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
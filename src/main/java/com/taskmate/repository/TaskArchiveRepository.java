@@ -0,0 +1,26 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskArchiveRepository extends JpaRepository<ArchivedTask, UUID>, TaskArchiveRepositoryCustom {
+
+    // Hard delete of a task that has already been archived
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ArchivedTask a WHERE a.id = :id")
+    int deleteArchivedTaskById(@Param("id") UUID id);
+
+    // The archived task's ETag and Last-Modified, as TaskRepository.findRowVersionById reads them from tasks
+    @Query("SELECT a.version AS version, a.updatedAt AS updatedAt, a.deleted AS deleted FROM ArchivedTask a WHERE a.id = :id")
+    Optional<TaskRepository.RowVersion> findRowVersionById(@Param("id") UUID id);
+}
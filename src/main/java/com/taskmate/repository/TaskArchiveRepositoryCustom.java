@@ -0,0 +1,29 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.ArchivedTask;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface TaskArchiveRepositoryCustom {
+
+    // Moves up to limit tasks deleted before cutoff, with ids after the given one (null for the
+    // first batch), from tasks into tasks_archive in one transaction; returns their ids in order
+    @Transactional
+    List<UUID> archiveBatch(LocalDateTime cutoff, UUID after, int limit, LocalDateTime archivedAt);
+
+    // Moves archived tasks back into tasks as restored (deleted = false); returns how many moved
+    @Transactional
+    int restore(Collection<UUID> ids, LocalDateTime updatedAt);
+
+    // Up to limit matching ids after the given one (null for the first page), in id order
+    List<UUID> findIds(Specification<ArchivedTask> spec, UUID after, int limit);
+
+    // Must be consumed inside a transaction and closed by the caller
+    Stream<ArchivedTask> streamAll();
+}
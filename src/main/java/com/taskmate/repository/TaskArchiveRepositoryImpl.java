@@ -0,0 +1,112 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.ArchivedTask;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class TaskArchiveRepositoryImpl implements TaskArchiveRepositoryCustom {
+
+    private static final String COLUMNS = "id, title, description, completed, deleted, due_date, created_at, updated_at, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${taskmate.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${taskmate.export.clear-interval:500}")
+    private int clearInterval;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> archiveBatch(LocalDateTime cutoff, UUID after, int limit, LocalDateTime archivedAt) {
+        // Keyset over idx_tasks_deleted_id; FOR UPDATE holds back a concurrent restore of these rows
+        // until they are in the archive, where the restore then finds them
+        Query select = entityManager.createNativeQuery("SELECT id FROM tasks"
+                        + " WHERE deleted = TRUE AND updated_at < :cutoff"
+                        + (after != null ? " AND id > :after" : "")
+                        + " ORDER BY id LIMIT :limit FOR UPDATE", UUID.class)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit);
+        if (after != null) {
+            select.setParameter("after", after);
+        }
+        List<UUID> ids = select.getResultList();
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        entityManager.createNativeQuery("INSERT INTO tasks_archive (" + COLUMNS + ", archived_at)"
+                        + " SELECT " + COLUMNS + ", :archivedAt FROM tasks WHERE id IN (:ids)")
+                .setParameter("archivedAt", archivedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM tasks WHERE id IN (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return ids;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int restore(Collection<UUID> requested, LocalDateTime updatedAt) {
+        if (requested.isEmpty()) {
+            return 0;
+        }
+        // Locked first, so two restores of the same task cannot both insert it
+        List<UUID> ids = entityManager.createNativeQuery(
+                        "SELECT id FROM tasks_archive WHERE id IN (:ids) FOR UPDATE", UUID.class)
+                .setParameter("ids", requested)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Same row as before archiving, flipped and versioned like TaskRepository.updateDeletedFlag does
+        int restored = entityManager.createNativeQuery("INSERT INTO tasks (" + COLUMNS + ")"
+                        + " SELECT id, title, description, completed, FALSE, due_date, created_at, :updatedAt, version + 1"
+                        + " FROM tasks_archive WHERE id IN (:ids)")
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM tasks_archive WHERE id IN (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return restored;
+    }
+
+    @Override
+    public List<UUID> findIds(Specification<ArchivedTask> spec, UUID after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<ArchivedTask> root = query.from(ArchivedTask.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (after != null) {
+            Predicate keyset = cb.greaterThan(root.<UUID>get("id"), after);
+            predicate = predicate != null ? cb.and(predicate, keyset) : keyset;
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id")).orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<ArchivedTask> streamAll() {
+        return SpecificationQueries.streamAll(entityManager, ArchivedTask.class, (root, query, cb) -> null,
+                fetchSize, clearInterval);
+    }
+}
@@ -3,15 +3,58 @@ package com.taskmate.repository;
 import com.taskmate.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
 
     @Query("SELECT t FROM Task t WHERE t.deleted = false")
     List<Task> findAllActiveTasks();
+
+    // The task's ETag and Last-Modified, and whether it may still be written
+    @Query("SELECT t.version AS version, t.updatedAt AS updatedAt, t.deleted AS deleted FROM Task t WHERE t.id = :id")
+    Optional<RowVersion> findRowVersionById(@Param("id") UUID id);
+
+    long countByDeleted(boolean deleted);
+
+    long countByDeletedFalseAndCompletedTrue();
+
+    // Open tasks per due date, for the overdue histogram; answered from idx_tasks_deleted_completed_due_date
+    @Query("SELECT t.dueDate, COUNT(t) FROM Task t"
+            + " WHERE t.deleted = false AND t.completed = false AND t.dueDate IS NOT NULL GROUP BY t.dueDate")
+    List<Object[]> countOpenTasksByDueDate();
+
+    // Hard delete in one statement; deleteById would load the entity first
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id = :id")
+    int deleteTaskById(@Param("id") UUID id);
+
+    // Only rows whose flag actually changes are counted
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.deleted = :deleted, t.updatedAt = :updatedAt, t.version = t.version + 1"
+            + " WHERE t.id IN :ids AND t.deleted <> :deleted")
+    int updateDeletedFlag(@Param("ids") Collection<UUID> ids,
+                          @Param("deleted") boolean deleted,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    interface RowVersion {
+
+        long getVersion();
+
+        LocalDateTime getUpdatedAt();
+
+        boolean isDeleted();
+    }
 }
@@ -0,0 +1,50 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.pojos.TaskVersion;
+import com.taskmate.pojos.WritePrecondition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    // Must be consumed inside a transaction and closed by the caller
+    Stream<Task> streamAll(Specification<Task> spec);
+
+    // Persists the chunk in its own transaction as JDBC batches, then detaches it
+    @Transactional
+    List<Task> insertBatch(List<Task> tasks);
+
+    // Single UPDATE over every row matching the specification
+    @Transactional
+    int updateDeletedFlag(Specification<Task> spec, boolean deleted, LocalDateTime updatedAt);
+
+    // Single UPDATE of the supplied fields of an active task, guarded by the patch's version when it
+    // has one and by the request's precondition
+    @Transactional
+    int patchTask(UUID id, TaskPatch patch, WritePrecondition precondition, LocalDateTime updatedAt);
+
+    // An offset page without the count query
+    Slice<Task> findSlice(Specification<Task> spec, Pageable pageable);
+
+    // Selects only the given columns; each row maps property name to value
+    Page<Map<String, Object>> findFields(Specification<Task> spec, Pageable pageable, Set<TaskField> fields);
+
+    // MAX(updated_at) and COUNT(*) over the matching rows; answered from the indexes alone
+    TaskVersion findVersion(Specification<Task> spec, String scope);
+
+    // Task id to the value of property, for every matching row
+    Map<UUID, Object> findSortValues(Specification<Task> spec, String property);
+}
@@ -0,0 +1,138 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.pojos.TaskSpecification;
+import com.taskmate.pojos.TaskVersion;
+import com.taskmate.pojos.WritePrecondition;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${taskmate.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${taskmate.export.clear-interval:500}")
+    private int clearInterval;
+
+    @Override
+    public Stream<Task> streamAll(Specification<Task> spec) {
+        return SpecificationQueries.streamAll(entityManager, Task.class, spec, fetchSize, clearInterval);
+    }
+
+    @Override
+    public List<Task> insertBatch(List<Task> tasks) {
+        // persist() rather than save(): ids are generated in memory, so no merge SELECT is needed and
+        // hibernate.jdbc.batch_size groups the INSERTs into batches
+        for (Task task : tasks) {
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return tasks;
+    }
+
+    @Override
+    public int updateDeletedFlag(Specification<Task> spec, boolean deleted, LocalDateTime updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> root = update.from(Task.class);
+
+        update.set(root.<Boolean>get("deleted"), deleted);
+        update.set(root.<LocalDateTime>get("updatedAt"), updatedAt);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        // As with JpaSpecificationExecutor.delete, there is no CriteriaQuery for a bulk statement
+        Predicate predicate = spec.toPredicate(root, null, cb);
+        if (predicate != null) {
+            update.where(predicate);
+        }
+
+        entityManager.flush();
+        int affected = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return affected;
+    }
+
+    @Override
+    public int patchTask(UUID id, TaskPatch patch, WritePrecondition precondition, LocalDateTime updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> root = update.from(Task.class);
+
+        if (patch.getTitle() != null) {
+            update.set(root.<String>get("title"), patch.getTitle());
+        }
+        // An explicit null clears the column
+        if (patch.hasDescription() && patch.getDescription() != null) {
+            update.set(root.<String>get("description"), patch.getDescription());
+        } else if (patch.hasDescription()) {
+            update.set(root.<String>get("description"), cb.nullLiteral(String.class));
+        }
+        if (patch.hasDueDate() && patch.getDueDate() != null) {
+            update.set(root.<LocalDateTime>get("dueDate"), patch.getDueDate());
+        } else if (patch.hasDueDate()) {
+            update.set(root.<LocalDateTime>get("dueDate"), cb.nullLiteral(LocalDateTime.class));
+        }
+        if (patch.getCompleted() != null) {
+            update.set(root.<Boolean>get("completed"), patch.getCompleted());
+        }
+        update.set(root.<LocalDateTime>get("updatedAt"), updatedAt);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        Predicate predicate = cb.and(cb.equal(root.get("id"), id), cb.isFalse(root.get("deleted")));
+        if (patch.getVersion() != null) {
+            predicate = cb.and(predicate, cb.equal(root.get("version"), patch.getVersion()));
+        }
+        if (!precondition.isNone()) {
+            predicate = cb.and(predicate, TaskSpecification.satisfies(precondition).toPredicate(root, null, cb));
+        }
+        update.where(predicate);
+
+        entityManager.flush();
+        int affected = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return affected;
+    }
+
+    @Override
+    public Slice<Task> findSlice(Specification<Task> spec, Pageable pageable) {
+        return SpecificationQueries.findSlice(entityManager, Task.class, spec, pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<Task> spec, Pageable pageable, Set<TaskField> fields) {
+        return SpecificationQueries.findFields(entityManager, Task.class, spec, pageable, fields);
+    }
+
+    @Override
+    public TaskVersion findVersion(Specification<Task> spec, String scope) {
+        return SpecificationQueries.findVersion(entityManager, Task.class, spec, scope);
+    }
+
+    @Override
+    public Map<UUID, Object> findSortValues(Specification<Task> spec, String property) {
+        return SpecificationQueries.findSortValues(entityManager, Task.class, spec, property);
+    }
+}
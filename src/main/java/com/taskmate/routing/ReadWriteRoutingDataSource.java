@@ -0,0 +1,90 @@
+package com.taskmate.routing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out primary connections, except inside a {@link ReplicaRead} method, where they come from
+ * the {@link ReplicaPool}. For {@code sticky-window} after a client's write commits, that client's
+ * reads go to the primary as well: replicas apply writes with some lag, and this keeps a client that
+ * reads right after writing from seeing the state before its write. Clients are told apart by
+ * {@link ReadYourWritesFilter}; other clients keep reading from the replicas. Replica reads within
+ * {@code max-lag} of any write may still predate it, so the read scope is told how long their
+ * results must not be cached; that bound is process-wide, like the list cache version. Unwrapping
+ * reaches the primary pool.
+ */
+public class ReadWriteRoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final ReplicaPool replicas;
+    private final long stickyWindowMillis;
+    private final long maxLagNanos;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    // System.nanoTime() until which the replicas may not have applied the last committed write yet
+    private volatile long lagUntil;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicas, Duration stickyWindow, Duration maxLag) {
+        super(primary);
+        this.replicas = replicas;
+        this.stickyWindowMillis = stickyWindow.toMillis();
+        this.maxLagNanos = Math.max(maxLag.toNanos(), stickyWindow.toNanos());
+        this.lagUntil = System.nanoTime();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReplicaReadInterceptor.isReplicaRead()) {
+            if (!isSticky()) {
+                Connection connection = replicas.getConnection();
+                if (connection != null) {
+                    long until = lagUntil;
+                    if (System.nanoTime() - until < 0) {
+                        ReplicaReadInterceptor.replicaMayLag(until);
+                    }
+                    replicaReads.increment();
+                    return connection;
+                }
+            }
+            primaryReads.increment();
+        }
+        return super.getConnection();
+    }
+
+    // Called once a read-write transaction has committed, on the thread that committed it
+    public void writeCommitted() {
+        lagUntil = System.nanoTime() + maxLagNanos;
+        ReadYourWritesFilter.writeCommitted(stickyWindowMillis);
+    }
+
+    // Whether the current request's client wrote within the sticky window
+    public boolean isSticky() {
+        return ReadYourWritesFilter.wroteWithin(stickyWindowMillis);
+    }
+
+    public ReplicaPool getReplicas() {
+        return replicas;
+    }
+
+    // Replica eligible connections served by a replica
+    public long getReplicaReadCount() {
+        return replicaReads.sum();
+    }
+
+    // Replica eligible connections served by the primary: sticky client, or no replica up
+    public long getPrimaryReadCount() {
+        return primaryReads.sum();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
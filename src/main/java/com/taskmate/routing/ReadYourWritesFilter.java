@@ -0,0 +1,85 @@
+package com.taskmate.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Tracks per client when it last committed a write, so that {@link ReadWriteRoutingDataSource}
+ * keeps only that client's reads on the primary for the sticky window. The time travels in the
+ * {@value #COOKIE} cookie, set on the response of a write and sent back with later requests; it is
+ * epoch millis, so it holds across instances as far as their clocks agree. Work outside a request,
+ * such as a streamed export body, has no client and is never sticky.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "taskmate-last-write";
+
+    private static final ThreadLocal<Client> CLIENT = new ThreadLocal<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CLIENT.set(new Client(response, lastWrite(request)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CLIENT.remove();
+        }
+    }
+
+    // Whether the client of the current request committed a write less than windowMillis ago
+    static boolean wroteWithin(long windowMillis) {
+        Client client = CLIENT.get();
+        return client != null && client.lastWrite > 0 && System.currentTimeMillis() - client.lastWrite < windowMillis;
+    }
+
+    // Remembers the write for the rest of the request and, while headers can still be sent, for the client
+    static void writeCommitted(long windowMillis) {
+        Client client = CLIENT.get();
+        if (client == null) {
+            return;
+        }
+        client.lastWrite = System.currentTimeMillis();
+        if (!client.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(client.lastWrite));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            client.response.addCookie(cookie);
+        }
+    }
+
+    private static long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static final class Client {
+
+        private final HttpServletResponse response;
+        private long lastWrite;
+
+        Client(HttpServletResponse response, long lastWrite) {
+            this.response = response;
+            this.lastWrite = lastWrite;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.taskmate.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas, each a connection pool of its own. Connections are handed out round-robin
+ * over the replicas currently up. A replica goes down when it fails a health check or a
+ * connection attempt and comes back with the first health check it passes; when none is up,
+ * reads fall back to the primary.
+ */
+public class ReplicaPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(List<? extends DataSource> dataSources, int validationTimeoutSeconds) {
+        this.replicas = dataSources.stream().map(Replica::new).toList();
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    // Null when no replica is up or every one that was failed to connect
+    Connection getConnection() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.up) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                down(replica, e);
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(initialDelayString = "${taskmate.replicas.health-check-interval:5s}",
+            fixedDelayString = "${taskmate.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(validationTimeoutSeconds)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.up) {
+                    replica.up = true;
+                    log.info("Replica {} is up again", replicas.indexOf(replica));
+                }
+            } catch (SQLException | RuntimeException e) {
+                down(replica, e);
+            }
+        }
+    }
+
+    public int getUpCount() {
+        int up = 0;
+        for (Replica replica : replicas) {
+            if (replica.up) {
+                up++;
+            }
+        }
+        return up;
+    }
+
+    public int size() {
+        return replicas.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void down(Replica replica, Exception e) {
+        if (replica.up) {
+            replica.up = false;
+            log.warn("Replica {} is down, reads go to the other replicas or the primary", replicas.indexOf(replica), e);
+        }
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean up = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
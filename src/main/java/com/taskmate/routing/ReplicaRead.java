@@ -0,0 +1,18 @@
+package com.taskmate.routing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code TaskService} method that only reads, so the connections it opens may come from a
+ * read replica when replica routing is enabled. A call that joins a transaction already in
+ * progress keeps using that transaction's connection.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,56 @@
+package com.taskmate.routing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Opens a replica read scope on the calling thread for the duration of a {@link ReplicaRead}
+ * method; {@link ReadWriteRoutingDataSource} consults it for every connection it hands out.
+ * Must be ordered outside the transaction interceptor, which takes the connection.
+ */
+public class ReplicaReadInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (SCOPE.get() != null) {
+            return invocation.proceed();
+        }
+        SCOPE.set(new Scope());
+        try {
+            return invocation.proceed();
+        } finally {
+            SCOPE.remove();
+        }
+    }
+
+    static boolean isReplicaRead() {
+        return SCOPE.get() != null;
+    }
+
+    // A replica connection was handed out while the replicas may still be applying a recent write
+    static void replicaMayLag(long until) {
+        Scope scope = SCOPE.get();
+        if (scope != null && (!scope.mayLag || until - scope.lagUntil > 0)) {
+            scope.mayLag = true;
+            scope.lagUntil = until;
+        }
+    }
+
+    /**
+     * Nanoseconds for which what the current read got from a replica may predate a write committed
+     * on this instance, or 0 when it cannot: caches must not keep such a result any longer. At least 1
+     * once it may lag, as the replica may have served the read before it caught up.
+     */
+    public static long lagNanos() {
+        Scope scope = SCOPE.get();
+        return scope != null && scope.mayLag ? Math.max(1, scope.lagUntil - System.nanoTime()) : 0;
+    }
+
+    private static final class Scope {
+
+        private boolean mayLag;
+        private long lagUntil;
+    }
+}
@@ -0,0 +1,311 @@
+package com.taskmate.search;
+
+import com.taskmate.entity.ArchivedTask;
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.SearchIndexStatistics;
+import com.taskmate.repository.TaskArchiveRepository;
+import com.taskmate.repository.TaskRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over task title and description. Every query term matches as a
+ * prefix and all terms must match. Tasks get compact int document ids; posting lists are
+ * append-only int arrays, so readers never lock. An updated or deleted task only retires its
+ * document id, and a rebuild compacts the retired ones away; one starts in the background once
+ * retired documents exceed {@code compact-ratio} of the live ones. Soft deleted tasks, archived or not,
+ * stay indexed: the {@code deleted} filter is applied by the database like every other filter.
+ */
+@Component
+public class TaskSearchIndex implements SmartInitializingSingleton {
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final TaskRepository taskRepository;
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object writeLock = new Object();
+
+    @Value("${taskmate.search.compact-ratio:0.5}")
+    private double compactRatio = 0.5;
+
+    // Small indexes are not worth a rebuild however many of their documents are retired
+    @Value("${taskmate.search.compact-min-retired:10000}")
+    private int compactMinRetired = 10000;
+
+    private volatile Segment current = new Segment();
+    // Writes made while a rebuild streams the table, replayed onto the new segment before it goes live
+    private List<Consumer<Segment>> pending;
+    private volatile long lastBuildMillis;
+    private volatile LocalDateTime builtAt;
+
+    public TaskSearchIndex(TaskRepository taskRepository, TaskArchiveRepository taskArchiveRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Built before the web server starts accepting requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // ===== Queries =====
+
+    public Set<UUID> search(String text) {
+        List<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search text has no searchable terms");
+        }
+        Segment segment = current;
+        BitSet matches = null;
+        for (String term : terms) {
+            BitSet termMatches = segment.match(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.and(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return Set.of();
+            }
+        }
+        return segment.ids(matches);
+    }
+
+    // Lowercased letter/digit runs, deduplicated; also the normalized form of a query for cache keys
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(lower.substring(start, Math.min(i, start + MAX_TERM_LENGTH)));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    // ===== Updates =====
+
+    public void index(Task task) {
+        if (task == null || task.getId() == null) {
+            return;
+        }
+        UUID id = task.getId();
+        String[] terms = terms(task);
+        apply(segment -> segment.put(id, terms));
+    }
+
+    public void indexAll(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            index(task);
+        }
+    }
+
+    public void remove(UUID id) {
+        apply(segment -> segment.remove(id));
+    }
+
+    private void apply(Consumer<Segment> change) {
+        Segment segment;
+        synchronized (writeLock) {
+            segment = current;
+            change.accept(segment);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+        // Retired documents still cost memory and posting scans until they are compacted away
+        int retired = segment.retiredDocuments;
+        if (retired >= compactMinRetired && retired > segment.liveDocuments * compactRatio && !rebuilding.get()) {
+            rebuildAsync();
+        }
+    }
+
+    // ===== Rebuild =====
+
+    // Streams every task into a new segment while readers keep using the current one
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            synchronized (writeLock) {
+                pending = new ArrayList<>();
+            }
+            Segment next = new Segment();
+            Specification<Task> all = (root, query, cb) -> null;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Task> tasks = taskRepository.streamAll(all)) {
+                    tasks.forEach(task -> next.put(task.getId(), terms(task)));
+                }
+                // Archived tasks are still listed, and searched, as deleted tasks
+                try (Stream<ArchivedTask> archived = taskArchiveRepository.streamAll()) {
+                    archived.forEach(task -> next.put(task.getId(), terms(task.toTask())));
+                }
+            });
+            synchronized (writeLock) {
+                pending.forEach(change -> change.accept(next));
+                pending = null;
+                current = next;
+            }
+            lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+            builtAt = LocalDateTime.now();
+            return true;
+        } finally {
+            synchronized (writeLock) {
+                pending = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    // false when a rebuild is already running
+    public boolean rebuildAsync() {
+        if (rebuilding.get()) {
+            return false;
+        }
+        Thread.ofVirtual().name("search-index-rebuild").start(this::rebuild);
+        return true;
+    }
+
+    public SearchIndexStatistics statistics() {
+        Segment segment = current;
+        return new SearchIndexStatistics(segment.liveDocuments, segment.retiredDocuments, segment.postings.size(),
+                rebuilding.get(), lastBuildMillis, builtAt);
+    }
+
+    private static String[] terms(Task task) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(task.getTitle()));
+        terms.addAll(tokenize(task.getDescription()));
+        return terms.toArray(new String[0]);
+    }
+
+    // ===== Segment =====
+
+    /**
+     * One generation of the index. Written under the index's write lock; read without locks.
+     */
+    private static final class Segment {
+
+        final ConcurrentSkipListMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+        // Writer-only: the live document id of each task
+        final Map<UUID, Integer> documents = new HashMap<>();
+        // Document id to task id; null once the document is retired
+        volatile UUID[] ids = new UUID[1024];
+        int nextDocument;
+        volatile int liveDocuments;
+        volatile int retiredDocuments;
+
+        void put(UUID id, String[] terms) {
+            remove(id);
+            int document = nextDocument++;
+            UUID[] table = ids;
+            if (document == table.length) {
+                UUID[] grown = new UUID[table.length * 2];
+                System.arraycopy(table, 0, grown, 0, table.length);
+                table = grown;
+            }
+            table[document] = id;
+            ids = table;
+            documents.put(id, document);
+            liveDocuments++;
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new Posting()).add(document);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer document = documents.remove(id);
+            if (document != null) {
+                ids[document] = null;
+                liveDocuments--;
+                retiredDocuments++;
+            }
+        }
+
+        BitSet match(String prefix) {
+            BitSet matches = new BitSet();
+            for (Posting posting : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                posting.addTo(matches);
+            }
+            return matches;
+        }
+
+        Set<UUID> ids(BitSet documentIds) {
+            UUID[] table = ids;
+            Set<UUID> result = new HashSet<>();
+            for (int document = documentIds.nextSetBit(0); document >= 0; document = documentIds.nextSetBit(document + 1)) {
+                UUID id = document < table.length ? table[document] : null;
+                if (id != null) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Sorted, append-only document ids. The size is published after the element, so a reader
+     * that reads the size first always sees a complete prefix of the list.
+     */
+    private static final class Posting {
+
+        private volatile int[] documents = new int[4];
+        private volatile int size;
+
+        void add(int document) {
+            int[] array = documents;
+            if (size == array.length) {
+                int[] grown = new int[array.length * 2];
+                System.arraycopy(array, 0, grown, 0, size);
+                array = grown;
+                documents = array;
+            }
+            array[size] = document;
+            size = size + 1;
+        }
+
+        void addTo(BitSet matches) {
+            int count = size;
+            int[] array = documents;
+            for (int i = 0; i < count; i++) {
+                matches.set(array[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.taskmate.service;
+
+/**
+ * The task exists but does not match the request's If-Match / If-Unmodified-Since; nothing was changed.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
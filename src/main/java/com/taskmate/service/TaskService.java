@@ -3,25 +3,68 @@ package com.taskmate.service;
 import com.taskmate.entity.Priority;
 import com.taskmate.entity.Task;
 import com.taskmate.entity.TaskStatus;
+import com.taskmate.pojos.BulkCreateResponse;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.pojos.TaskSlice;
+import com.taskmate.pojos.TaskStatistics;
+import com.taskmate.pojos.TaskVersion;
+import com.taskmate.pojos.WritePrecondition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface TaskService {
 
     Task createTask(Task task);
 
+    BulkCreateResponse createTasks(Iterable<Task> tasks);
+
     List<Task> getAllTasks();
 
+    // With write-behind, createTask returns once the task is queued; it is inserted shortly after
+    boolean isWriteBehindEnabled();
+
     Task getTaskById(String id);
 
-    Task updateTask(String id, Task task);
+    TaskVersion getTaskVersion(String id);
+
+    // Served from in-memory counters, without queries
+    TaskStatistics getTaskStatistics();
+
+    // view distinguishes representations of the same filter (page, sort, fields, cursor)
+    TaskVersion getTasksVersion(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            Boolean deleted,
+            String view,
+            String q);
+
+    Task updateTask(String id, TaskPatch patch);
+
+    // Throws PreconditionFailedException when the task exists but does not match the precondition
+    Task updateTask(String id, TaskPatch patch, WritePrecondition precondition);
 
     void deleteTask(String id);
 
     boolean softDeleteTask(String id);
 
+    boolean softDeleteTask(String id, WritePrecondition precondition);
+
+    int softDeleteTasks(List<String> ids);
+
+    int softDeleteTasks(TaskStatus status, Priority priority, Boolean overdue, LocalDateTime dueFrom, LocalDateTime dueTo);
+
+    int restoreTasks(List<String> ids);
+
+    int restoreTasks(TaskStatus status, Priority priority, Boolean overdue, LocalDateTime dueFrom, LocalDateTime dueTo);
+
      Page<Task> getTasks(
              TaskStatus status,
              Priority priority,
@@ -32,5 +75,56 @@ public interface TaskService {
              int size,
              Boolean deleted,
              String sortBy,
-             String direction);
+             String direction,
+             String q);
+
+    // The same page without the count query; whether there is a next page is all it knows
+    Slice<Task> getTasksWithoutTotal(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            int page,
+            int size,
+            Boolean deleted,
+            String sortBy,
+            String direction,
+            String q);
+
+    Page<Map<String, Object>> getTaskFields(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            int page,
+            int size,
+            Boolean deleted,
+            String sortBy,
+            String direction,
+            String fields,
+            String q);
+
+    TaskSlice getTasksByCursor(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            String cursor,
+            int size,
+            Boolean deleted,
+            String sortBy,
+            String direction,
+            String q);
+
+    long exportTasks(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            Boolean deleted,
+            Consumer<Task> consumer);
 }
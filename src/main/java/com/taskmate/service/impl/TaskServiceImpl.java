@@ -1,79 +1,602 @@
 package com.taskmate.service.impl;
 
+import com.taskmate.cache.TaskCache;
+import com.taskmate.cache.TaskQueryCache;
+import com.taskmate.cache.TaskQueryKey;
+import com.taskmate.cache.TaskReadCoalescer;
+import com.taskmate.entity.ArchivedTask;
+import com.taskmate.entity.DeletedTask;
 import com.taskmate.entity.Priority;
 import com.taskmate.entity.Task;
 import com.taskmate.entity.TaskStatus;
+import com.taskmate.events.TaskEventBroadcaster;
+import com.taskmate.pojos.BulkCreateResponse;
+import com.taskmate.pojos.BulkTaskResult;
+import com.taskmate.pojos.KeysetSortField;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskCursor;
+import com.taskmate.pojos.TaskEvent;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.pojos.TaskSlice;
 import com.taskmate.pojos.TaskSpecification;
+import com.taskmate.pojos.TaskStatistics;
+import com.taskmate.pojos.TaskVersion;
+import com.taskmate.pojos.WritePrecondition;
+import com.taskmate.repository.DeletedTaskRepository;
+import com.taskmate.repository.TaskArchiveRepository;
 import com.taskmate.repository.TaskRepository;
+import com.taskmate.routing.ReplicaRead;
+import com.taskmate.search.TaskSearchIndex;
+import com.taskmate.service.PreconditionFailedException;
 import com.taskmate.service.TaskService;
+import com.taskmate.stats.TaskCounters;
+import com.taskmate.writebehind.TaskWriteBehindQueue;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private TaskRepository taskRepository;
+    private DeletedTaskRepository deletedTaskRepository;
+    private TaskArchiveRepository taskArchiveRepository;
+    private Validator validator;
+    private TaskCache taskCache;
+    private TaskQueryCache taskQueryCache;
+    private TaskReadCoalescer taskReadCoalescer;
+    private TaskSearchIndex taskSearchIndex;
+    private TaskCounters taskCounters;
+    private TaskWriteBehindQueue taskWriteBehindQueue;
+    private TaskEventBroadcaster taskEventBroadcaster;
 
-    public TaskServiceImpl(TaskRepository taskRepository) {
+    @Value("${taskmate.bulk.chunk-size:500}")
+    private int bulkChunkSize = 500;
+
+    // Search matches bound as one IN list; a search matching more is filtered a batch at a time
+    @Value("${taskmate.search.batch-size:1000}")
+    private int searchBatchSize = 1000;
+
+    public TaskServiceImpl(TaskRepository taskRepository, DeletedTaskRepository deletedTaskRepository,
+                           TaskArchiveRepository taskArchiveRepository, Validator validator, TaskCache taskCache,
+                           TaskQueryCache taskQueryCache, TaskReadCoalescer taskReadCoalescer,
+                           TaskSearchIndex taskSearchIndex,
+                           TaskCounters taskCounters, TaskWriteBehindQueue taskWriteBehindQueue,
+                           TaskEventBroadcaster taskEventBroadcaster) {
         this.taskRepository = taskRepository;
+        this.deletedTaskRepository = deletedTaskRepository;
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.validator = validator;
+        this.taskCache = taskCache;
+        this.taskQueryCache = taskQueryCache;
+        this.taskReadCoalescer = taskReadCoalescer;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskCounters = taskCounters;
+        this.taskWriteBehindQueue = taskWriteBehindQueue;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        taskWriteBehindQueue.onInserted(this::tasksInserted);
     }
 
     public Task createTask(Task task) {
+        // Ids are always generated, as in bulk creation; a supplied one could take over an existing id
+        if (task.getId() != null) {
+            throw new IllegalArgumentException("Id must not be supplied");
+        }
+        if (taskWriteBehindQueue.isEnabled()) {
+            return taskWriteBehindQueue.accept(task);
+        }
         taskRepository.save(task);
+        taskSearchIndex.index(task);
+        afterCommit(() -> {
+            taskCounters.changed(null, task);
+            taskEventBroadcaster.publish(TaskEvent.Type.CREATED, task.getId(), task);
+        });
+        taskChanged(task.getId());
         return task;
     }
 
     @Override
+    public BulkCreateResponse createTasks(Iterable<Task> tasks) {
+        List<BulkTaskResult> results = new ArrayList<>();
+        List<Task> chunk = new ArrayList<>(bulkChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(bulkChunkSize);
+
+        int index = 0;
+        for (Task task : tasks) {
+            List<String> errors = validate(task);
+            if (errors.isEmpty()) {
+                chunk.add(task);
+                chunkIndexes.add(index);
+            } else {
+                results.add(BulkTaskResult.failed(index, errors));
+            }
+            if (chunk.size() >= bulkChunkSize) {
+                insertChunk(chunk, chunkIndexes, results);
+                chunk = new ArrayList<>(bulkChunkSize);
+                chunkIndexes = new ArrayList<>(bulkChunkSize);
+            }
+            index++;
+        }
+        insertChunk(chunk, chunkIndexes, results);
+
+        results.sort(Comparator.comparingInt(BulkTaskResult::getIndex));
+        return new BulkCreateResponse(results);
+    }
+
+    private List<String> validate(Task task) {
+        List<String> errors = new ArrayList<>();
+        if (task == null) {
+            errors.add("Task is required");
+            return errors;
+        }
+        if (task.getId() != null) {
+            errors.add("Id must not be supplied");
+        }
+        for (ConstraintViolation<Task> violation : validator.validate(task)) {
+            errors.add(violation.getMessage());
+        }
+        return errors;
+    }
+
+    // A chunk is one transaction: either every task in it is created or all of them are reported as failed
+    private void insertChunk(List<Task> chunk, List<Integer> chunkIndexes, List<BulkTaskResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            taskRepository.insertBatch(chunk);
+            tasksInserted(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(BulkTaskResult.created(chunkIndexes.get(i), chunk.get(i).getId()));
+            }
+        } catch (DataAccessException e) {
+            String error = "Batch insert failed: " + e.getMostSpecificCause().getMessage();
+            for (Integer chunkIndex : chunkIndexes) {
+                results.add(BulkTaskResult.failed(chunkIndex, List.of(error)));
+            }
+        }
+    }
+
+    // Bulk and write-behind inserts
+    private void tasksInserted(List<Task> tasks) {
+        taskSearchIndex.indexAll(tasks);
+        afterCommit(() -> {
+            taskCounters.added(tasks);
+            for (Task task : tasks) {
+                taskEventBroadcaster.publish(TaskEvent.Type.CREATED, task.getId(), task);
+            }
+        });
+        // New ids cannot be cached yet, only list results are affected
+        tasksChanged(List.of());
+    }
+
+    @Override
+    public boolean isWriteBehindEnabled() {
+        return taskWriteBehindQueue.isEnabled();
+    }
+
+    @Override
+    @ReplicaRead
     public List<Task> getAllTasks() {
         return taskRepository.findAllActiveTasks();
     }
 
     @Override
+    @ReplicaRead
     public Task getTaskById(String id) {
+        UUID uuid;
         try {
-            return taskRepository.findById(UUID.fromString(id)).orElse(null);
+            uuid = UUID.fromString(id);
         } catch (IllegalArgumentException e) {
             return null;
         }
+        // Read-your-writes for a task whose write-behind INSERT has not committed yet
+        Task queued = taskWriteBehindQueue.getPending(uuid);
+        if (queued != null) {
+            return queued;
+        }
+        // Concurrent misses for one id share a single lookup; hits go straight to the cache
+        if (!taskCache.contains(uuid)) {
+            return taskReadCoalescer.getTask(uuid, () -> taskCache.get(uuid, this::findTask));
+        }
+        return taskCache.get(uuid, this::findTask);
+    }
+
+    // Only a miss in the hot table pays for the archive lookup
+    private Task findTask(UUID id) {
+        return taskRepository.findById(id)
+                .or(() -> taskArchiveRepository.findById(id).map(ArchivedTask::toTask))
+                .orElse(null);
     }
 
     @Override
-    public Task updateTask(String id, Task task) {
-        return null;
+    @ReplicaRead
+    public TaskVersion getTaskVersion(String id) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // A queued or cached task already carries its version; otherwise a primary key lookup of two
+        // columns, in the archive only when the task is not in the hot table
+        Task cached = taskWriteBehindQueue.getPending(uuid);
+        if (cached == null) {
+            cached = taskCache.getIfPresent(uuid);
+        }
+        if (cached != null) {
+            return TaskVersion.ofTask(cached.getVersion(), cached.getUpdatedAt());
+        }
+        return taskRepository.findRowVersionById(uuid)
+                .or(() -> taskArchiveRepository.findRowVersionById(uuid))
+                .map(row -> TaskVersion.ofTask(row.getVersion(), row.getUpdatedAt()))
+                .orElse(null);
     }
 
     @Override
-    public void deleteTask(String id) {
+    public TaskStatistics getTaskStatistics() {
+        return taskCounters.snapshot();
+    }
 
+    @Override
+    @ReplicaRead
+    public TaskVersion getTasksVersion(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            Boolean deleted,
+            String view,
+            String q) {
+
+        // Overdue lists are versioned at the same pinned "now" the result cache uses for the page
+        boolean overdueOnly = Boolean.TRUE.equals(overdue);
+        LocalDateTime overdueAt = null;
+        if (overdueOnly) {
+            overdueAt = taskQueryCache.cachesOverdueQueries()
+                    ? taskQueryCache.overdueBucket(LocalDateTime.now())
+                    : now();
+        }
+        Specification<Task> filters = overdueAt != null
+                ? TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, deleted, overdueAt)
+                : TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, deleted);
+        // A search too large for one IN list is versioned by its filters alone: every write to one
+        // of its matches moves MAX(updated_at) or COUNT(*) of all filtered rows too
+        Set<UUID> matches = searchMatches(q);
+        Specification<Task> spec = fitsOneQuery(matches) ? withSearch(filters, matches) : filters;
+
+        String scope = Arrays.asList(status, priority, overdueOnly, overdueAt, dueFrom, dueTo,
+                Boolean.TRUE.equals(deleted), view, searchTerms(q)).toString();
+        Supplier<TaskVersion> loader = () -> Boolean.TRUE.equals(deleted)
+                ? deletedTaskRepository.findVersion(TaskSpecification.forStoredTasks(spec), scope)
+                : taskRepository.findVersion(spec, scope);
+        // Cached like the pages, until the next write; an unpinned "now" would never hit
+        return overdueOnly && !taskQueryCache.cachesOverdueQueries()
+                ? loader.get()
+                : taskQueryCache.getVersion(scope, loader);
     }
 
     @Override
-    public boolean softDeleteTask(String id) {
+    public Task updateTask(String id, TaskPatch patch) {
+        return updateTask(id, patch, WritePrecondition.NONE);
+    }
+
+    // One UPDATE of the supplied fields, conditional on the body version and the precondition; the
+    // result is built from the cached task when its version proves it is the row that was updated,
+    // otherwise it is read back
+    @Override
+    public Task updateTask(String id, TaskPatch patch, WritePrecondition precondition) {
+        UUID uuid;
         try {
-            UUID uuid = UUID.fromString(id);
-            Optional<Task> taskOptional = taskRepository.findById(uuid);
-            if (taskOptional.isPresent()) {
-                Task task = taskOptional.get();
-                task.softDelete();
-                taskRepository.save(task);
-                return true;
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        validate(patch);
+
+        Task cached = taskCache.getIfPresent(uuid);
+        LocalDateTime updatedAt = now();
+        if (taskRepository.patchTask(uuid, patch, precondition, updatedAt) == 0) {
+            if (patch.getVersion() == null && precondition.isNone()) {
+                return null;
             }
-            return false;
+            // Only a failed conditional update pays for telling a stale precondition, a version
+            // conflict and a missing task apart
+            TaskRepository.RowVersion current = activeRowVersion(uuid);
+            if (current == null) {
+                return null;
+            }
+            if (!precondition.matches(current.getVersion(), current.getUpdatedAt())) {
+                throw new PreconditionFailedException("Task " + id + " does not match the request's preconditions");
+            }
+            throw new OptimisticLockingFailureException(
+                    "Task " + id + " is no longer at version " + (patch.getVersion() != null ? patch.getVersion() : precondition.getVersion()));
+        }
+        taskChanged(uuid);
+
+        Long expected = patch.getVersion() != null ? patch.getVersion() : precondition.getVersion();
+        Task updated = cached != null && expected != null && cached.getVersion() == expected
+                ? cached.withPatch(patch, updatedAt)
+                : taskRepository.findById(uuid).orElse(null);
+        taskSearchIndex.index(updated);
+        if (patch.getCompleted() != null || patch.hasDueDate()) {
+            countersChanged(cached, updated);
+        }
+        afterCommit(() -> taskEventBroadcaster.publish(TaskEvent.Type.UPDATED, uuid, updated));
+        return updated;
+    }
+
+    private TaskRepository.RowVersion activeRowVersion(UUID id) {
+        return taskRepository.findRowVersionById(id).filter(row -> !row.isDeleted()).orElse(null);
+    }
+
+    // The cached task is the row as it was before the update only when the update produced its next version
+    private void countersChanged(Task cached, Task updated) {
+        if (cached != null && updated != null && updated.getVersion() == cached.getVersion() + 1) {
+            afterCommit(() -> taskCounters.changed(cached, updated));
+        } else {
+            taskCounters.markDrifted();
+        }
+    }
+
+    private void validate(TaskPatch patch) {
+        if (patch == null || patch.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        List<String> errors = new ArrayList<>();
+        if (patch.getTitle() != null && patch.getTitle().isBlank()) {
+            errors.add("Title is required");
+        }
+        for (ConstraintViolation<TaskPatch> violation : validator.validate(patch)) {
+            errors.add(violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+    }
+
+    @Override
+    public void deleteTask(String id) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        Task cached = taskCache.getIfPresent(uuid);
+        if (taskRepository.deleteTaskById(uuid) > 0 || taskArchiveRepository.deleteArchivedTaskById(uuid) > 0) {
+            taskSearchIndex.remove(uuid);
+            if (cached != null) {
+                afterCommit(() -> taskCounters.changed(cached, null));
+            } else {
+                taskCounters.markDrifted();
+            }
+            afterCommit(() -> taskEventBroadcaster.publish(TaskEvent.Type.DELETED, uuid, null));
+            taskChanged(uuid);
+        }
+    }
+
+    @Override
+    public boolean softDeleteTask(String id) {
+        return softDeleteTasks(List.of(id)) > 0;
+    }
+
+    // The precondition is part of the UPDATE's WHERE clause; otherwise as a single id bulk delete
+    @Override
+    public boolean softDeleteTask(String id, WritePrecondition precondition) {
+        if (precondition.isNone()) {
+            return softDeleteTask(id);
+        }
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
         } catch (IllegalArgumentException e) {
             return false;
         }
+        List<UUID> chunk = List.of(uuid);
+        Specification<Task> spec = TaskSpecification.filterTasks(null, null, null, null, null, false)
+                .and(TaskSpecification.idIn(chunk))
+                .and(TaskSpecification.satisfies(precondition));
+        int affected = taskRepository.updateDeletedFlag(spec, true, now());
+        if (affected == 0) {
+            TaskRepository.RowVersion current = activeRowVersion(uuid);
+            if (current != null && !precondition.matches(current.getVersion(), current.getUpdatedAt())) {
+                throw new PreconditionFailedException("Task " + id + " does not match the request's preconditions");
+            }
+            return false;
+        }
+        afterCommit(() -> taskCounters.deletedFlagChanged(affected, true));
+        publishDeletedFlag(chunk, affected, true);
+        tasksChanged(chunk);
+        return true;
+    }
+
+    @Override
+    public int softDeleteTasks(List<String> ids) {
+        return updateDeletedFlag(ids, true);
+    }
+
+    @Override
+    public int softDeleteTasks(TaskStatus status, Priority priority, Boolean overdue, LocalDateTime dueFrom, LocalDateTime dueTo) {
+        Specification<Task> spec = TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, false);
+        int affected = taskRepository.updateDeletedFlag(spec, true, now());
+        afterCommit(() -> taskCounters.deletedFlagChanged(affected, true));
+        publishChanged(affected);
+        allTasksChanged();
+        return affected;
+    }
+
+    @Override
+    public int restoreTasks(List<String> ids) {
+        return updateDeletedFlag(ids, false);
+    }
+
+    @Override
+    public int restoreTasks(TaskStatus status, Priority priority, Boolean overdue, LocalDateTime dueFrom, LocalDateTime dueTo) {
+        Specification<Task> spec = TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, true);
+        LocalDateTime updatedAt = now();
+        int restored = taskRepository.updateDeletedFlag(spec, false, updatedAt);
+        // Archived matches are moved back a chunk at a time, paging through the archive by id so
+        // only one chunk of ids is held at once
+        Specification<ArchivedTask> archived = TaskSpecification.forStoredTasks(spec);
+        UUID after = null;
+        List<UUID> chunk;
+        do {
+            chunk = taskArchiveRepository.findIds(archived, after, bulkChunkSize);
+            if (!chunk.isEmpty()) {
+                restored += taskArchiveRepository.restore(chunk, updatedAt);
+                after = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == bulkChunkSize);
+        int affected = restored;
+        afterCommit(() -> taskCounters.deletedFlagChanged(affected, false));
+        publishChanged(affected);
+        allTasksChanged();
+        return affected;
+    }
+
+    // One UPDATE per chunk of ids; malformed ids are skipped like in getTaskById
+    private int updateDeletedFlag(List<String> ids, boolean deleted) {
+        List<UUID> uuids = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (id == null) {
+                continue;
+            }
+            try {
+                uuids.add(UUID.fromString(id));
+            } catch (IllegalArgumentException e) {
+                // not a task id
+            }
+        }
+
+        LocalDateTime updatedAt = now();
+        int affected = 0;
+        for (int from = 0; from < uuids.size(); from += bulkChunkSize) {
+            List<UUID> chunk = uuids.subList(from, Math.min(from + bulkChunkSize, uuids.size()));
+            // A task being restored may already have been archived
+            int chunkAffected = taskRepository.updateDeletedFlag(chunk, deleted, updatedAt)
+                    + (deleted ? 0 : taskArchiveRepository.restore(chunk, updatedAt));
+            afterCommit(() -> taskCounters.deletedFlagChanged(chunkAffected, deleted));
+            publishDeletedFlag(chunk, chunkAffected, deleted);
+            affected += chunkAffected;
+            tasksChanged(chunk);
+        }
+        return affected;
+    }
+
+    // Per task events only when every id in the chunk changed; otherwise which ones did is unknown
+    private void publishDeletedFlag(List<UUID> chunk, int affected, boolean deleted) {
+        if (affected != chunk.size()) {
+            publishChanged(affected);
+            return;
+        }
+        TaskEvent.Type type = deleted ? TaskEvent.Type.SOFT_DELETED : TaskEvent.Type.RESTORED;
+        List<UUID> ids = List.copyOf(chunk);
+        afterCommit(() -> {
+            for (UUID id : ids) {
+                taskEventBroadcaster.publish(type, id, null);
+            }
+        });
+    }
+
+    private void publishChanged(int affected) {
+        if (affected > 0) {
+            afterCommit(() -> taskEventBroadcaster.publish(TaskEvent.Type.CHANGED, null, null));
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // ===== Write notifications =====
+    // Called after every write. When the write joined an outer transaction the caches are evicted
+    // again once it completes, so nothing read before the commit (or rollback) survives.
+
+    private void taskChanged(UUID id) {
+        tasksChanged(id != null ? List.of(id) : List.of());
+    }
+
+    private void tasksChanged(Collection<UUID> ids) {
+        afterWrite(() -> {
+            taskCache.invalidateAll(ids);
+            taskQueryCache.bumpVersion();
+            taskReadCoalescer.forgetTasks(ids);
+            taskReadCoalescer.forgetQueries();
+        });
+    }
+
+    // Used when the affected ids are unknown (filter based bulk updates)
+    private void allTasksChanged() {
+        afterWrite(() -> {
+            taskCache.invalidateAll();
+            taskQueryCache.bumpVersion();
+            taskReadCoalescer.forgetAll();
+        });
+    }
+
+    // Counter deltas and change events are applied exactly once, and only for writes that commit
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private void afterWrite(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
     }
 
     @Override
+    @ReplicaRead
     public Page<Task> getTasks(
             TaskStatus status,
             Priority priority,
@@ -84,16 +607,300 @@ public class TaskServiceImpl implements TaskService {
             int size,
             Boolean delete,
             String sortBy,
-            String direction) {
+            String direction,
+            String q) {
 
-        Sort sort = direction.equalsIgnoreCase("desc")
+        return queryPage(status, priority, overdue, dueFrom, dueTo, page, size, delete, sortBy, direction, null, q, true,
+                (spec, pageable) -> Boolean.TRUE.equals(delete)
+                        ? deletedTaskRepository.findAll(TaskSpecification.forStoredTasks(spec), pageable).map(DeletedTask::toTask)
+                        : taskRepository.findAll(spec, pageable));
+    }
+
+    @Override
+    @ReplicaRead
+    public Slice<Task> getTasksWithoutTotal(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            int page,
+            int size,
+            Boolean deleted,
+            String sortBy,
+            String direction,
+            String q) {
+
+        return queryPage(status, priority, overdue, dueFrom, dueTo, page, size, deleted, sortBy, direction, null, q, false,
+                (spec, pageable) -> Boolean.TRUE.equals(deleted)
+                        ? deletedTaskRepository.findSlice(TaskSpecification.forStoredTasks(spec), pageable).map(DeletedTask::toTask)
+                        : taskRepository.findSlice(spec, pageable));
+    }
+
+    @Override
+    @ReplicaRead
+    public Page<Map<String, Object>> getTaskFields(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            int page,
+            int size,
+            Boolean deleted,
+            String sortBy,
+            String direction,
+            String fields,
+            String q) {
+
+        Set<TaskField> selected = TaskField.parse(fields);
+        return queryPage(status, priority, overdue, dueFrom, dueTo, page, size, deleted, sortBy, direction, selected, q, true,
+                (spec, pageable) -> Boolean.TRUE.equals(deleted)
+                        ? deletedTaskRepository.findFields(TaskSpecification.forStoredTasks(spec), pageable, selected)
+                        : taskRepository.findFields(spec, pageable, selected));
+    }
+
+    // Offset paged query through the result cache; fields is null when full tasks are loaded, total
+    // is false when the query reads a Slice without its count
+    private <S extends Slice<?>> S queryPage(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            int page,
+            int size,
+            Boolean delete,
+            String sortBy,
+            String direction,
+            Set<TaskField> fields,
+            String q,
+            boolean total,
+            BiFunction<Specification<Task>, Pageable, S> query) {
+
+        boolean descending = direction.equalsIgnoreCase("desc");
+        Sort sort = descending
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Specification<Task> spec = TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, delete);
+        // overdue depends on the current time, so it is only cacheable when pinned to a time bucket
+        boolean overdueOnly = Boolean.TRUE.equals(overdue);
+        boolean cacheable = !overdueOnly || taskQueryCache.cachesOverdueQueries();
+        LocalDateTime overdueAt = overdueOnly && cacheable
+                ? taskQueryCache.overdueBucket(LocalDateTime.now())
+                : null;
+
+        Specification<Task> spec = overdueAt != null
+                ? TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, delete, overdueAt)
+                : TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, delete);
 
-        return taskRepository.findAll(spec, pageable);
+        TaskQueryKey key = new TaskQueryKey(status, priority, overdueOnly, overdueAt, dueFrom, dueTo,
+                Boolean.TRUE.equals(delete), page, size, sortBy, descending, fields, searchTerms(q), total);
+        // Uncached overdue queries are still shared by callers that ask at the same moment
+        if (!cacheable) {
+            return taskReadCoalescer.getPage(key, () -> findPage(spec, q, delete, pageable, total, query));
+        }
+        // The index is only consulted on a cache miss; concurrent misses for one key share a single query
+        Supplier<S> load = () -> taskQueryCache.get(key, () -> findPage(spec, q, delete, pageable, total, query));
+        return taskQueryCache.contains(key) ? load.get() : taskReadCoalescer.getPage(key, load);
+    }
+
+    // Runs query restricted to the matches of q. Too many matches for one IN list are filtered and
+    // ordered a batch at a time instead, and only the rows of the requested page are then loaded
+    @SuppressWarnings("unchecked")
+    private <S extends Slice<?>> S findPage(Specification<Task> spec, String q, Boolean deleted, Pageable pageable,
+                                            boolean total, BiFunction<Specification<Task>, Pageable, S> query) {
+        Set<UUID> matches = searchMatches(q);
+        if (fitsOneQuery(matches)) {
+            return query.apply(withSearch(spec, matches), pageable);
+        }
+        Sort.Order order = pageable.getSort().iterator().next();
+        List<UUID> ordered = orderedMatches(spec, deleted, matches, order.getProperty(), order.getDirection())
+                .stream().map(Map.Entry::getKey).toList();
+        int from = (int) Math.min(pageable.getOffset(), ordered.size());
+        List<UUID> ids = ordered.subList(from, Math.min(from + pageable.getPageSize(), ordered.size()));
+        List<?> content = ids.isEmpty()
+                ? List.of()
+                : query.apply(spec.and(TaskSpecification.idIn(ids)), PageRequest.of(0, ids.size(), pageable.getSort()))
+                        .getContent();
+        return (S) (total
+                ? new PageImpl<>(content, pageable, ordered.size())
+                : new SliceImpl<>(content, pageable, from + ids.size() < ordered.size()));
+    }
+
+    // The matches passing spec, each with its value of property, in the order the database sorts
+    // them: nulls first when ascending, ids breaking ties. Each query binds one batch of match ids
+    @SuppressWarnings("unchecked")
+    private List<Map.Entry<UUID, Object>> orderedMatches(Specification<Task> spec, Boolean deleted, Set<UUID> matches,
+                                                         String property, Sort.Direction direction) {
+        List<UUID> ids = new ArrayList<>(matches);
+        ids.sort(null);
+        Map<UUID, Object> values = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += searchBatchSize) {
+            Specification<Task> batch = spec.and(TaskSpecification.idIn(
+                    ids.subList(from, Math.min(from + searchBatchSize, ids.size()))));
+            values.putAll(Boolean.TRUE.equals(deleted)
+                    ? deletedTaskRepository.findSortValues(TaskSpecification.forStoredTasks(batch), property)
+                    : taskRepository.findSortValues(batch, property));
+        }
+        List<Map.Entry<UUID, Object>> ordered = new ArrayList<>(values.entrySet());
+        ordered.sort(matchOrder(direction));
+        return ordered;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<Map.Entry<UUID, Object>> matchOrder(Sort.Direction direction) {
+        Comparator<Object> byValue = Comparator.nullsFirst((a, b) -> ((Comparable<Object>) a).compareTo(b));
+        Comparator<Map.Entry<UUID, Object>> order = Map.Entry.<UUID, Object>comparingByValue(byValue)
+                .thenComparing(Map.Entry.comparingByKey());
+        return direction.isDescending() ? order.reversed() : order;
+    }
+
+    // The ids of the tasks matching every term of q; null without q
+    private Set<UUID> searchMatches(String q) {
+        return q == null || q.isBlank() ? null : taskSearchIndex.search(q);
+    }
+
+    private boolean fitsOneQuery(Set<UUID> matches) {
+        return matches == null || matches.size() <= searchBatchSize;
+    }
+
+    // Restricts the query to the search matches; no restriction without a search
+    private static Specification<Task> withSearch(Specification<Task> spec, Set<UUID> matches) {
+        return matches == null ? spec : spec.and(TaskSpecification.idIn(matches));
+    }
+
+    private static List<String> searchTerms(String q) {
+        return q == null || q.isBlank() ? null : TaskSearchIndex.tokenize(q);
+    }
+
+    @Override
+    @ReplicaRead
+    public TaskSlice getTasksByCursor(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            String cursor,
+            int size,
+            Boolean deleted,
+            String sortBy,
+            String direction,
+            String q) {
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        KeysetSortField sortField = KeysetSortField.fromProperty(sortBy);
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+
+        // No cursor means the first page; otherwise continue strictly after the (sortKey, id) pair
+        ScrollPosition position = ScrollPosition.keyset();
+        TaskCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = TaskCursor.decode(cursor);
+            if (after.getSortField() != sortField || after.getDirection() != sortDirection) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            position = ScrollPosition.forward(sortField.isUnique()
+                    ? Map.of("id", after.getId())
+                    : Map.of(sortField.getProperty(), after.getSortValue(), "id", after.getId()));
+        }
+
+        // id breaks ties so the keyset is unique
+        Sort sort = sortField.isUnique()
+                ? Sort.by(sortDirection, "id")
+                : Sort.by(sortDirection, sortField.getProperty(), "id");
+        Specification<Task> filters = TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, deleted);
+        Set<UUID> matches = searchMatches(q);
+        if (!fitsOneQuery(matches)) {
+            return findSearchSlice(filters, deleted, matches, sortField, sortDirection, sort, after, size);
+        }
+        Specification<Task> spec = withSearch(filters, matches);
+
+        ScrollPosition start = position;
+        Window<Task> window;
+        if (Boolean.TRUE.equals(deleted)) {
+            Specification<DeletedTask> deletedSpec = TaskSpecification.forStoredTasks(spec);
+            Window<DeletedTask> deletedWindow = deletedTaskRepository.findBy(deletedSpec,
+                    query -> query.sortBy(sort).limit(size).scroll(start));
+            window = deletedWindow.map(DeletedTask::toTask);
+        } else {
+            window = taskRepository.findBy(spec, query -> query.sortBy(sort).limit(size).scroll(start));
+        }
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Task last = window.getContent().get(window.size() - 1);
+            nextCursor = TaskCursor.after(last, sortField, sortDirection).encode();
+        }
+        return new TaskSlice(window.getContent(), nextCursor);
+    }
+
+    // The cursor page of a search too large for one IN list, cut from its ordered matches
+    private TaskSlice findSearchSlice(Specification<Task> spec, Boolean deleted, Set<UUID> matches,
+                                      KeysetSortField sortField, Sort.Direction direction, Sort sort,
+                                      TaskCursor after, int size) {
+        List<Map.Entry<UUID, Object>> ordered = orderedMatches(spec, deleted, matches, sortField.getProperty(), direction);
+        int from = 0;
+        if (after != null) {
+            Map.Entry<UUID, Object> last = Map.entry(after.getId(),
+                    sortField.isUnique() ? after.getId() : after.getSortValue());
+            Comparator<Map.Entry<UUID, Object>> order = matchOrder(direction);
+            while (from < ordered.size() && order.compare(ordered.get(from), last) <= 0) {
+                from++;
+            }
+        }
+        List<UUID> ids = ordered.subList(from, Math.min(from + size, ordered.size())).stream()
+                .map(Map.Entry::getKey)
+                .toList();
+        if (ids.isEmpty()) {
+            return new TaskSlice(List.of(), null);
+        }
+
+        Specification<Task> page = spec.and(TaskSpecification.idIn(ids));
+        List<Task> content = Boolean.TRUE.equals(deleted)
+                ? deletedTaskRepository.findAll(TaskSpecification.forStoredTasks(page), sort).stream()
+                        .map(DeletedTask::toTask)
+                        .toList()
+                : taskRepository.findAll(page, sort);
+        String nextCursor = null;
+        if (from + ids.size() < ordered.size() && !content.isEmpty()) {
+            nextCursor = TaskCursor.after(content.get(content.size() - 1), sortField, direction).encode();
+        }
+        return new TaskSlice(content, nextCursor);
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public long exportTasks(
+            TaskStatus status,
+            Priority priority,
+            Boolean overdue,
+            LocalDateTime dueFrom,
+            LocalDateTime dueTo,
+            Boolean deleted,
+            Consumer<Task> consumer) {
+
+        Specification<Task> spec = TaskSpecification.filterTasks(status, priority, overdue, dueFrom, dueTo, deleted);
+
+        long exported = 0;
+        try (Stream<Task> tasks = Boolean.TRUE.equals(deleted)
+                ? deletedTaskRepository.streamAll(TaskSpecification.forStoredTasks(spec)).map(DeletedTask::toTask)
+                : taskRepository.streamAll(spec)) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                exported++;
+            }
+        }
+        return exported;
     }
 }
@@ -0,0 +1,228 @@
+package com.taskmate.stats;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskStatistics;
+import com.taskmate.repository.TaskArchiveRepository;
+import com.taskmate.repository.TaskRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory task counts for the statistics endpoint. Writers add deltas to striped counters;
+ * open tasks with a due date sit in a per-minute due-date histogram whose buckets are folded
+ * into the overdue count once their minute has passed, so reading costs no queries and no scan.
+ * The counts are seeded from the database and periodically recounted there to correct drift,
+ * e.g. from writes whose previous row state was unknown. A delta applied while a recount runs may
+ * or may not be in it, so such a recount leaves the counters marked drifted.
+ */
+@Component
+public class TaskCounters implements SmartInitializingSingleton {
+
+    private final TaskRepository taskRepository;
+    private final TaskArchiveRepository taskArchiveRepository;
+    // Deltas share the lock; folding expired buckets into overdue and swapping in a recount take it exclusively
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean drifted = new AtomicBoolean();
+    // Deltas applied so far, under the read lock; only ever grows
+    private final LongAdder deltas = new LongAdder();
+
+    private volatile Counters counters = new Counters(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+    private volatile LocalDateTime reconciledAt;
+    private volatile long lastCorrection;
+
+    public TaskCounters(TaskRepository taskRepository, TaskArchiveRepository taskArchiveRepository) {
+        this.taskRepository = taskRepository;
+        this.taskArchiveRepository = taskArchiveRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile();
+    }
+
+    public TaskStatistics snapshot() {
+        Counters current = expire(LocalDateTime.now());
+        return new TaskStatistics(current.total.sum(), current.completed.sum(), current.overdue.sum(),
+                current.deleted.sum(), reconciledAt, lastCorrection);
+    }
+
+    // ===== Deltas =====
+
+    // before/after are the task's row before and after the write; null when the row does not exist
+    public void changed(Task before, Task after) {
+        lock.readLock().lock();
+        try {
+            Counters current = counters;
+            if (before != null) {
+                current.add(before, -1);
+            }
+            if (after != null) {
+                current.add(after, 1);
+            }
+            deltas.increment();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void added(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            changed(null, task);
+        }
+    }
+
+    // Soft delete or restore of rows whose other columns are unknown: moves them between the
+    // total and deleted counts exactly and leaves completed/overdue to the next recount
+    public void deletedFlagChanged(int affected, boolean deleted) {
+        if (affected == 0) {
+            return;
+        }
+        int sign = deleted ? 1 : -1;
+        lock.readLock().lock();
+        try {
+            Counters current = counters;
+            current.total.add(-sign * (long) affected);
+            current.deleted.add(sign * (long) affected);
+            deltas.increment();
+        } finally {
+            lock.readLock().unlock();
+        }
+        markDrifted();
+    }
+
+    // The write's effect on the counters is unknown; recount at the next drift check
+    public void markDrifted() {
+        drifted.set(true);
+    }
+
+    // ===== Reconciliation =====
+
+    @Scheduled(initialDelayString = "${taskmate.stats.reconcile-interval:5m}",
+            fixedDelayString = "${taskmate.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        drifted.set(false);
+        long deltasBefore = deltas.sum();
+        Counters recount = new Counters(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        recount.total.add(taskRepository.countByDeleted(false));
+        // Archiving moves a deleted task to another table; it is still counted as deleted
+        recount.deleted.add(taskRepository.countByDeleted(true) + taskArchiveRepository.count());
+        recount.completed.add(taskRepository.countByDeletedFalseAndCompletedTrue());
+        for (Object[] row : taskRepository.countOpenTasksByDueDate()) {
+            recount.addDue((LocalDateTime) row[0], (Long) row[1]);
+        }
+
+        // A delta applied since the recount started goes to the counters being replaced, and its write
+        // may have committed too late for the queries: recount again at the next drift check
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            if (deltas.sum() != deltasBefore) {
+                drifted.set(true);
+            }
+            Counters previous = counters;
+            previous.expire(now);
+            recount.expire(now);
+            lastCorrection = Math.abs(recount.total.sum() - previous.total.sum())
+                    + Math.abs(recount.completed.sum() - previous.completed.sum())
+                    + Math.abs(recount.overdue.sum() - previous.overdue.sum())
+                    + Math.abs(recount.deleted.sum() - previous.deleted.sum());
+            counters = recount;
+            reconciledAt = now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${taskmate.stats.drift-check-interval:10s}")
+    public void reconcileIfDrifted() {
+        if (drifted.get()) {
+            reconcile();
+        }
+    }
+
+    // Folds the buckets whose minute has passed into overdue; cheap when none has
+    private Counters expire(LocalDateTime now) {
+        Counters current = counters;
+        if (!current.hasExpired(now)) {
+            return current;
+        }
+        lock.writeLock().lock();
+        try {
+            current = counters;
+            current.expire(now);
+            return current;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Counters =====
+
+    private static final class Counters {
+
+        final LongAdder total = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder overdue = new LongAdder();
+        final LongAdder deleted = new LongAdder();
+        // Open tasks by due minute, for the minutes not yet folded into overdue
+        final ConcurrentSkipListMap<LocalDateTime, LongAdder> dueBuckets = new ConcurrentSkipListMap<>();
+        // Every due minute before this one has been folded into overdue
+        volatile LocalDateTime expiredUntil;
+
+        Counters(LocalDateTime expiredUntil) {
+            this.expiredUntil = expiredUntil;
+        }
+
+        // The deleted counter covers soft deleted tasks; every other counter only active ones
+        void add(Task task, int sign) {
+            if (task.isDeleted()) {
+                deleted.add(sign);
+                return;
+            }
+            total.add(sign);
+            if (task.isCompleted()) {
+                completed.add(sign);
+            } else if (task.getDueDate() != null) {
+                addDue(task.getDueDate(), sign);
+            }
+        }
+
+        void addDue(LocalDateTime dueDate, long delta) {
+            LocalDateTime bucket = dueDate.truncatedTo(ChronoUnit.MINUTES);
+            if (bucket.isBefore(expiredUntil)) {
+                overdue.add(delta);
+            } else {
+                dueBuckets.computeIfAbsent(bucket, key -> new LongAdder()).add(delta);
+            }
+        }
+
+        boolean hasExpired(LocalDateTime now) {
+            return now.truncatedTo(ChronoUnit.MINUTES).isAfter(expiredUntil);
+        }
+
+        void expire(LocalDateTime now) {
+            LocalDateTime until = now.truncatedTo(ChronoUnit.MINUTES);
+            if (!until.isAfter(expiredUntil)) {
+                return;
+            }
+            Iterator<Map.Entry<LocalDateTime, LongAdder>> buckets = dueBuckets.headMap(until).entrySet().iterator();
+            while (buckets.hasNext()) {
+                overdue.add(buckets.next().getValue().sum());
+                buckets.remove();
+            }
+            expiredUntil = until;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.taskmate.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response body that is compressed only once it outgrows {@code threshold} bytes. Until then it
+ * is held back, so a small body is sent as is with a Content-Length, and a large one gets its
+ * Content-Encoding header before the first byte is committed.
+ */
+final class CompressingOutputStream extends OutputStream {
+
+    private final HttpServletResponse response;
+    private final String encoding;
+    private final int threshold;
+    private ByteArrayOutputStream pending;
+    private OutputStream out;
+
+    // encoding is "gzip" or "deflate"
+    CompressingOutputStream(HttpServletResponse response, String encoding, int threshold) {
+        this.response = response;
+        this.encoding = encoding;
+        this.threshold = threshold;
+        this.pending = new ByteArrayOutputStream(Math.min(threshold, 8192));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (out == null) {
+            if (pending.size() + len <= threshold) {
+                pending.write(b, off, len);
+                return;
+            }
+            start(true);
+        }
+        out.write(b, off, len);
+    }
+
+    private void start(boolean compress) throws IOException {
+        OutputStream body = response.getOutputStream();
+        if (compress) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+            // The compressed bytes are a different representation; a weak ETag still matches If-None-Match
+            String eTag = response.getHeader(HttpHeaders.ETAG);
+            if (eTag != null && !eTag.startsWith("W/")) {
+                response.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+            }
+            out = encoding.equals("gzip") ? new GZIPOutputStream(body, 8192) : new DeflaterOutputStream(body);
+        } else {
+            response.setContentLength(pending.size());
+            out = body;
+        }
+        pending.writeTo(out);
+        pending = null;
+    }
+
+    // Held back bytes stay held back until the threshold or close decides how they are sent
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out == null) {
+            start(false);
+        }
+        out.close();
+    }
+}
@@ -0,0 +1,159 @@
+package com.taskmate.web;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskSlice;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes task lists as a compact envelope, {@code {content, count, hasNext, ...}}, where
+ * {@code count} is the number of rows written, with paging properties after the rows:
+ * {@code page}, {@code size} (the requested page size), {@code nextPage} and, unless the page was
+ * read without its count, {@code totalElements} and {@code totalPages} for offset pages;
+ * {@code nextCursor} for cursor pages. The envelope is
+ * generated by hand and every row goes through a writer built once for its type, straight into
+ * the response buffer. Bodies over {@code min-size} are gzip or deflate compressed when the
+ * client accepts it.
+ */
+@Component
+public class TaskListWriter {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter taskWriter;
+    private final ObjectWriter fieldsWriter;
+    private final boolean compression;
+    private final int compressionThreshold;
+
+    public TaskListWriter(ObjectMapper objectMapper,
+                          @Value("${taskmate.list.compression.enabled:true}") boolean compression,
+                          @Value("${taskmate.list.compression.min-size:2KB}") DataSize compressionThreshold) {
+        this.objectMapper = objectMapper;
+        // Rows are flushed with the envelope, not one by one
+        this.taskWriter = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fieldsWriter = objectMapper.writerFor(Map.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.compression = compression;
+        this.compressionThreshold = (int) compressionThreshold.toBytes();
+    }
+
+    public void writePage(Slice<Task> page, String acceptEncoding, HttpServletResponse response) throws IOException {
+        writeOffsetPage(page, taskWriter, open(acceptEncoding, response));
+    }
+
+    // Uncompressed; closes out
+    public void writePage(Slice<Task> page, OutputStream out) {
+        writeOffsetPage(page, taskWriter, out);
+    }
+
+    public void writeFields(Page<Map<String, Object>> page, String acceptEncoding, HttpServletResponse response) throws IOException {
+        writeOffsetPage(page, fieldsWriter, open(acceptEncoding, response));
+    }
+
+    public void writeSlice(TaskSlice slice, String acceptEncoding, HttpServletResponse response) throws IOException {
+        try (JsonGenerator generator = start(open(acceptEncoding, response))) {
+            writeContent(generator, slice.getContent(), taskWriter);
+            generator.writeBooleanProperty("hasNext", slice.isHasNext());
+            generator.writeStringProperty("nextCursor", slice.getNextCursor());
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeOffsetPage(Slice<?> page, ObjectWriter rowWriter, OutputStream out) {
+        try (JsonGenerator generator = start(out)) {
+            writeContent(generator, page.getContent(), rowWriter);
+            generator.writeBooleanProperty("hasNext", page.hasNext());
+            generator.writeNumberProperty("page", page.getNumber());
+            generator.writeNumberProperty("size", page.getSize());
+            if (page.hasNext()) {
+                generator.writeNumberProperty("nextPage", page.getNumber() + 1);
+            } else {
+                generator.writeNullProperty("nextPage");
+            }
+            if (page instanceof Page<?> counted) {
+                generator.writeNumberProperty("totalElements", counted.getTotalElements());
+                generator.writeNumberProperty("totalPages", counted.getTotalPages());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private OutputStream open(String acceptEncoding, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (!compression) {
+            return response.getOutputStream();
+        }
+        // Whether or not this body is compressed, another Accept-Encoding may get a different one
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String encoding = negotiate(acceptEncoding);
+        return encoding != null
+                ? new CompressingOutputStream(response, encoding, compressionThreshold)
+                : response.getOutputStream();
+    }
+
+    private JsonGenerator start(OutputStream out) {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.writeStartObject();
+        return generator;
+    }
+
+    private static void writeContent(JsonGenerator generator, Iterable<?> rows, ObjectWriter rowWriter) {
+        generator.writeArrayPropertyStart("content");
+        int count = 0;
+        for (Object row : rows) {
+            rowWriter.writeValue(generator, row);
+            count++;
+        }
+        generator.writeEndArray();
+        generator.writeNumberProperty("count", count);
+    }
+
+    // gzip is preferred over deflate; null means identity. Tokens with q=0 are refused.
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (refused(parts)) {
+                continue;
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip") || coding.equals("*")) {
+                gzip = true;
+            } else if (coding.equals("deflate")) {
+                deflate = true;
+            }
+        }
+        return gzip ? "gzip" : deflate ? "deflate" : null;
+    }
+
+    private static boolean refused(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
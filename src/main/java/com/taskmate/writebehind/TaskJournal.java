@@ -0,0 +1,294 @@
+package com.taskmate.writebehind;
+
+import com.taskmate.entity.Task;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only NDJSON file of accepted tasks whose INSERT may not have committed yet. An append
+ * returns once the line is on disk; appenders that arrive while an fsync is running share the
+ * next one, so a burst of accepts costs a few fsyncs rather than one each.
+ * <p>
+ * The journal is split into segments of {@code segmentSize} tasks. The active segment is the
+ * journal path itself; a full one is renamed to {@code <path>.<n>} and a new one started. A segment
+ * is deleted (the active one truncated) as soon as every task in it has been written, so the
+ * journal stays bounded under sustained load. Tasks that can never be inserted are moved to the
+ * dead letter file, one {@code error}/{@code task} object per line.
+ */
+class TaskJournal implements Closeable {
+
+    private final Path path;
+    private final Path deadLetterPath;
+    private final int segmentSize;
+    private final ObjectWriter writer;
+    private final ObjectWriter entryWriter;
+    private final ObjectReader reader;
+    private final Object appendLock = new Object();
+    private final Object deadLetterLock = new Object();
+
+    // Guarded by appendLock: the segment of every journaled task not written yet, and the sealed segments
+    private final Map<UUID, Segment> unwritten = new HashMap<>();
+    private final List<Segment> sealed = new ArrayList<>();
+    private Segment active;
+    private long nextSequence;
+
+    private FileChannel deadLetters;
+
+    TaskJournal(Path path, Path deadLetterPath, int segmentSize, ObjectMapper objectMapper) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.path = path;
+        this.deadLetterPath = deadLetterPath;
+        this.segmentSize = segmentSize;
+        this.writer = objectMapper.writerFor(Task.class);
+        this.entryWriter = objectMapper.writer();
+        // Derived properties such as "overdue" are written but cannot be read back
+        this.reader = objectMapper.readerFor(Task.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        List<Path> segments = sealedSegments();
+        nextSequence = segments.isEmpty() ? 1 : sequence(segments.get(segments.size() - 1)) + 1;
+        // What the last run left in the active segment is recovered like any sealed segment
+        if (Files.exists(path) && Files.size(path) > 0) {
+            Files.move(path, sealedPath(nextSequence++));
+        }
+        this.active = Segment.open(path);
+    }
+
+    // Every complete entry of the segments left by earlier runs, oldest first; each stays journaled
+    // until it is reported written. A line torn by a crash during its append was never acknowledged
+    // and is skipped.
+    List<Task> recover() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        synchronized (appendLock) {
+            for (Path segmentPath : sealedSegments()) {
+                Segment segment = new Segment(segmentPath, null);
+                try (BufferedReader lines = Files.newBufferedReader(segmentPath, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = lines.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        Task task;
+                        try {
+                            task = reader.readValue(line);
+                        } catch (JacksonException e) {
+                            // torn write
+                            continue;
+                        }
+                        if (task.getId() != null && unwritten.putIfAbsent(task.getId(), segment) == null) {
+                            segment.outstanding++;
+                            tasks.add(task);
+                        }
+                    }
+                }
+                if (segment.outstanding == 0) {
+                    segment.delete();
+                } else {
+                    sealed.add(segment);
+                }
+            }
+        }
+        return tasks;
+    }
+
+    void append(Task task) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((writer.writeValueAsString(task) + "\n").getBytes(StandardCharsets.UTF_8));
+        Segment segment;
+        long end;
+        synchronized (appendLock) {
+            if (active.appended >= segmentSize) {
+                rotate();
+            }
+            segment = active;
+            while (line.hasRemaining()) {
+                segment.channel.write(line);
+            }
+            end = segment.channel.position();
+            segment.appended++;
+            segment.outstanding++;
+            unwritten.put(task.getId(), segment);
+        }
+        try {
+            segment.sync(end);
+        } catch (IOException e) {
+            written(List.of(task.getId()));
+            throw e;
+        }
+    }
+
+    // The tasks' INSERTs committed or they were moved to the dead letter file; segments left
+    // without unwritten tasks are removed, checked under the append lock so no accept slips in
+    void written(Collection<UUID> ids) throws IOException {
+        synchronized (appendLock) {
+            for (UUID id : ids) {
+                Segment segment = unwritten.remove(id);
+                if (segment == null || --segment.outstanding > 0) {
+                    continue;
+                }
+                if (segment == active) {
+                    segment.truncate();
+                } else {
+                    sealed.remove(segment);
+                    segment.delete();
+                }
+            }
+        }
+    }
+
+    // Durable before it returns, like an append; the caller then reports the task written
+    void deadLetter(Task task, String error) throws IOException {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("error", error);
+        entry.put("task", task);
+        ByteBuffer line = ByteBuffer.wrap((entryWriter.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+        synchronized (deadLetterLock) {
+            if (deadLetters == null) {
+                Path parent = deadLetterPath.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                deadLetters = FileChannel.open(deadLetterPath,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            while (line.hasRemaining()) {
+                deadLetters.write(line);
+            }
+            deadLetters.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            for (Segment segment : sealed) {
+                segment.close();
+            }
+            active.close();
+        }
+        synchronized (deadLetterLock) {
+            if (deadLetters != null) {
+                deadLetters.close();
+            }
+        }
+    }
+
+    // Called under the append lock. The sealed segment keeps its channel until it is deleted, so
+    // appenders still waiting for its fsync are not affected by the rename
+    private void rotate() throws IOException {
+        Path sealedPath = sealedPath(nextSequence++);
+        Files.move(path, sealedPath);
+        active.path = sealedPath;
+        if (active.outstanding == 0) {
+            active.delete();
+        } else {
+            sealed.add(active);
+        }
+        active = Segment.open(path);
+    }
+
+    private Path sealedPath(long sequence) {
+        return path.resolveSibling(path.getFileName() + "." + sequence);
+    }
+
+    private List<Path> sealedSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        Path directory = path.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, path.getFileName() + ".*")) {
+            for (Path file : files) {
+                if (sequence(file) > 0) {
+                    segments.add(path.resolveSibling(file.getFileName()));
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(TaskJournal::sequence));
+        return segments;
+    }
+
+    // Sequence number of a sealed segment, or 0 for any other file
+    private static long sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        String suffix = name.substring(name.lastIndexOf('.') + 1);
+        if (suffix.isEmpty() || !suffix.chars().allMatch(Character::isDigit)) {
+            return 0;
+        }
+        return Long.parseLong(suffix);
+    }
+
+    private static final class Segment {
+
+        private Path path;
+        // Null for a segment left by an earlier run, which is only read
+        private final FileChannel channel;
+        // Guarded by the journal's append lock
+        private int appended;
+        private int outstanding;
+        // Bytes known to be on disk, guarded by this segment
+        private long synced;
+
+        Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        static Segment open(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new Segment(path, channel);
+        }
+
+        synchronized void sync(long end) throws IOException {
+            if (synced < end) {
+                // Covers everything appended so far, including lines of threads queued behind this one
+                long target = channel.position();
+                channel.force(false);
+                synced = target;
+            }
+        }
+
+        synchronized void truncate() throws IOException {
+            if (channel.size() == 0) {
+                return;
+            }
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(false);
+            synced = 0;
+            appended = 0;
+        }
+
+        void delete() throws IOException {
+            close();
+            Files.deleteIfExists(path);
+        }
+
+        void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
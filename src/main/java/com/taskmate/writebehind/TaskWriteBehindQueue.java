@@ -0,0 +1,290 @@
+package com.taskmate.writebehind;
+
+import com.taskmate.entity.Task;
+import com.taskmate.entity.UuidV7;
+import com.taskmate.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in write-behind creation ({@code taskmate.write-behind.enabled}). An accepted task gets its
+ * id, is journaled to local disk and queued; a single writer thread inserts the queue in batches
+ * of up to {@code batch-size} tasks per transaction, waiting at most {@code flush-interval} for a
+ * batch to fill. Until its batch commits a task is served from here by id. At most
+ * {@code capacity} tasks are accepted but not yet inserted; beyond that accepts are refused.
+ * On startup, journaled tasks missing from the database are inserted before new ones are taken.
+ * A task that fails for a reason retrying cannot fix, at runtime or on recovery, is moved to the
+ * {@code dead-letter} file and the rest of its batch is still inserted.
+ */
+@Component
+public class TaskWriteBehindQueue implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteBehindQueue.class);
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5000;
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Path journalPath;
+    private final int journalSegmentSize;
+    private final Path deadLetterPath;
+
+    private final Semaphore permits;
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    // Accepted tasks by id until their INSERT commits, for read-your-writes
+    private final Map<UUID, Task> pending = new ConcurrentHashMap<>();
+    private TaskJournal journal;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile Consumer<List<Task>> onInserted = tasks -> { };
+
+    public TaskWriteBehindQueue(TaskRepository taskRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${taskmate.write-behind.enabled:false}") boolean enabled,
+                                @Value("${taskmate.write-behind.capacity:10000}") int capacity,
+                                @Value("${taskmate.write-behind.batch-size:500}") int batchSize,
+                                @Value("${taskmate.write-behind.flush-interval:20ms}") Duration flushInterval,
+                                @Value("${taskmate.write-behind.journal:data/task-write-behind.journal}") Path journalPath,
+                                @Value("${taskmate.write-behind.journal-segment-size:10000}") int journalSegmentSize,
+                                @Value("${taskmate.write-behind.dead-letter:data/task-write-behind.rejected}") Path deadLetterPath) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.journalPath = journalPath;
+        this.journalSegmentSize = journalSegmentSize;
+        this.deadLetterPath = deadLetterPath;
+        this.permits = new Semaphore(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Called with every batch once it has committed, on the writer thread
+    public void onInserted(Consumer<List<Task>> listener) {
+        this.onInserted = listener;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal = new TaskJournal(journalPath, deadLetterPath, journalSegmentSize, objectMapper);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-behind journal " + journalPath, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recovering the write-behind journal", e);
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("task-write-behind").daemon().start(this::drain);
+    }
+
+    // ===== Accepting =====
+
+    public Task accept(Task task) {
+        if (!running) {
+            throw new IllegalStateException("Write-behind queue is not running");
+        }
+        if (!permits.tryAcquire()) {
+            throw new WriteQueueFullException("Write-behind queue is full (" + capacity + " tasks)");
+        }
+        task.accept(UuidV7.next(), LocalDateTime.now());
+        pending.put(task.getId(), task);
+        try {
+            journal.append(task);
+        } catch (IOException e) {
+            pending.remove(task.getId());
+            permits.release();
+            throw new UncheckedIOException("Cannot journal task", e);
+        }
+        queue.add(task);
+        return task;
+    }
+
+    // A task accepted but not inserted yet; null otherwise
+    public Task getPending(UUID id) {
+        return pending.get(id);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    // ===== Writing =====
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Task first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Task> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                // Group commit: wait a little for more tasks to share the transaction
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Task next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                // Whatever is still queued is in the journal and gets inserted on the next start
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<Task> batch) throws InterruptedException {
+        long backoff = 50;
+        while (true) {
+            try {
+                insert(batch);
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException | CannotCreateTransactionException e) {
+                // The database is unavailable or busy: the same batch is retried
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+            } catch (RuntimeException e) {
+                if (batch.size() == 1) {
+                    // Retrying cannot help
+                    rejected(batch.get(0), e);
+                    return;
+                }
+                // Isolate the failing task so the rest of the batch still gets inserted
+                for (Task task : batch) {
+                    write(List.of(task));
+                }
+                return;
+            }
+        }
+    }
+
+    private void insert(List<Task> batch) {
+        taskRepository.insertBatch(new ArrayList<>(batch));
+        completed(batch);
+        try {
+            onInserted.accept(batch);
+        } catch (RuntimeException e) {
+            log.warn("Write-behind listener failed after inserting {} tasks", batch.size(), e);
+        }
+    }
+
+    // Recovered tasks were never pending and hold no permit
+    private void completed(List<Task> batch) {
+        List<UUID> ids = new ArrayList<>(batch.size());
+        int released = 0;
+        for (Task task : batch) {
+            ids.add(task.getId());
+            if (pending.remove(task.getId()) != null) {
+                released++;
+            }
+        }
+        permits.release(released);
+        try {
+            journal.written(ids);
+        } catch (IOException e) {
+            // A journal that keeps committed tasks is only replayed idempotently
+        }
+    }
+
+    private void rejected(Task task, RuntimeException e) {
+        try {
+            journal.deadLetter(task, String.valueOf(e.getMessage()));
+        } catch (IOException deadLetterFailure) {
+            // Left in the journal, so the next start tries it again
+            log.error("Cannot move write-behind task {} to {}", task.getId(), deadLetterPath, deadLetterFailure);
+            pending.remove(task.getId());
+            permits.release();
+            return;
+        }
+        log.error("Moved write-behind task {} to {}", task.getId(), deadLetterPath, e);
+        completed(List.of(task));
+    }
+
+    // ===== Recovery and shutdown =====
+
+    // Goes through the same retry and per task isolation as the writer, so a task the database keeps
+    // rejecting cannot stop the application from starting
+    private void recover() throws IOException, InterruptedException {
+        List<Task> journaled = journal.recover();
+        if (journaled.isEmpty()) {
+            return;
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (Task task : journaled) {
+            ids.add(task.getId());
+        }
+        Set<UUID> inserted = new HashSet<>();
+        for (Task task : taskRepository.findAllById(ids)) {
+            inserted.add(task.getId());
+        }
+        journal.written(inserted);
+        List<Task> missing = new ArrayList<>();
+        for (Task task : journaled) {
+            if (!inserted.contains(task.getId())) {
+                task.accept(task.getId(), task.getCreatedAt());
+                missing.add(task);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            write(new ArrayList<>(missing.subList(from, Math.min(from + batchSize, missing.size()))));
+        }
+    }
+
+    // Stops accepting and writes out what is queued before the application context closes
+    @Override
+    public void destroy() throws Exception {
+        if (writer == null) {
+            return;
+        }
+        // The writer empties the queue before it exits
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+}
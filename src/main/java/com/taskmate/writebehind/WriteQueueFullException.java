@@ -0,0 +1,11 @@
+package com.taskmate.writebehind;
+
+/**
+ * The write-behind queue holds as many accepted tasks as it may; the caller should retry later.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
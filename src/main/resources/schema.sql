@@ -1,16 +1,46 @@
 -- Create table
 CREATE TABLE IF NOT EXISTS tasks (
-    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
-    title VARCHAR(100) NOT NULL,
-    description TEXT,
+    id UUID DEFAULT RANDOM_UUID(7) PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
     completed BOOLEAN NOT NULL DEFAULT FALSE,
     deleted BOOLEAN NOT NULL DEFAULT FALSE,
     due_date TIMESTAMP,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
--- Indexes
-CREATE INDEX IF NOT EXISTS idx_tasks_completed ON tasks(completed);
-CREATE INDEX IF NOT EXISTS idx_tasks_deleted ON tasks(deleted);
-CREATE INDEX IF NOT EXISTS idx_tasks_due_date ON tasks(due_date);
\ No newline at end of file
+-- Indexes (keep in sync with @Table(indexes) on Task)
+-- Default listing and cursor pagination: deleted = ? ORDER BY created_at, id
+CREATE INDEX IF NOT EXISTS idx_tasks_deleted_created_at ON tasks(deleted, created_at, id);
+-- Cursor pagination by id (UUIDv7, so creation order): deleted = ? ORDER BY id
+CREATE INDEX IF NOT EXISTS idx_tasks_deleted_id ON tasks(deleted, id);
+-- Due date windows and due date ordering: deleted = ? AND due_date BETWEEN ? AND ?
+-- updated_at is carried along so the list ETag query (MAX(updated_at), COUNT(*)) never reads rows
+CREATE INDEX IF NOT EXISTS idx_tasks_deleted_due_date ON tasks(deleted, due_date, updated_at);
+-- Overdue: deleted = false AND completed = false AND due_date < now
+CREATE INDEX IF NOT EXISTS idx_tasks_deleted_completed_due_date ON tasks(deleted, completed, due_date, updated_at);
+-- List ETag without due date filters: deleted = ? -> MAX(updated_at)
+CREATE INDEX IF NOT EXISTS idx_tasks_deleted_updated_at ON tasks(deleted, updated_at);
+
+-- Soft deleted tasks moved out of tasks by the archiver after the retention period (TaskArchiver)
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id UUID PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    completed BOOLEAN NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    due_date TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+-- Indexes (keep in sync with @Table(indexes) on ArchivedTask)
+-- The deleted task listing reads tasks and tasks_archive alike (DeletedTask), so the archive
+-- carries the deleted = true halves of the tasks indexes
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_created_at ON tasks_archive(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_due_date ON tasks_archive(due_date, updated_at);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_updated_at ON tasks_archive(updated_at);
@@ -0,0 +1,111 @@
+package com.taskmate.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Should hand the leader's exception to every waiter and run the next call afresh")
+    void testErrorPropagatesToWaiters() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> waiter = executor.submit(() -> flight.execute("key", () -> "not run"));
+            awaitCollapsed(flight, 1);
+            release.countDown();
+
+            ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException waiterError = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertSame(failure, leaderError.getCause());
+            assertSame(failure, waiterError.getCause());
+        }
+
+        assertEquals("fresh", flight.execute("key", () -> "fresh"));
+        assertEquals(2, flight.getExecutedCount());
+    }
+
+    @Test
+    @DisplayName("Should give up waiting after the timeout with a transient exception")
+    void testWaiterTimesOut() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(TransientDataAccessResourceException.class, () -> flight.execute("key", () -> "not run"));
+            assertEquals(1, flight.getTimedOutCount());
+
+            release.countDown();
+            assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Should start a new load for a forgotten key while the old one is still running")
+    void testForgetStartsNewFlight() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> stale = executor.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return loads.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            flight.forget("key");
+            assertEquals(1, flight.execute("key", loads::incrementAndGet));
+
+            release.countDown();
+            assertEquals(2, stale.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, flight.getCollapsedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitCollapsed(SingleFlight<?, ?> flight, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (flight.getCollapsedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.taskmate.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Should set version 7, the RFC variant and the current time")
+    void testLayout() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(UuidV7.timestamp(id) >= before);
+        // The counter may borrow a few milliseconds after a burst of ids in another test
+        assertTrue(UuidV7.timestamp(id) <= after + 100);
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Should stay strictly increasing within a millisecond and across counter overflow")
+    void testMonotonicWithinMillisecond() {
+        UuidV7 generator = new UuidV7();
+        long millis = System.currentTimeMillis();
+        long previous = generator.nextState(millis);
+        // More than the 4096 values of the counter, all at the same millisecond
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextState(millis);
+            assertTrue(next > previous);
+            previous = next;
+        }
+        // The clock going back does not reorder ids either
+        assertTrue(generator.nextState(millis - 1000) > previous);
+    }
+
+    @Test
+    @DisplayName("Should hand out unique, per-thread ordered ids under concurrency")
+    void testConcurrentGeneration() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(UuidV7.next());
+                    }
+                    return ids;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(ids.get(i).compareTo(ids.get(i - 1)) > 0);
+                }
+                all.addAll(ids);
+            }
+            assertEquals(threads * perThread, all.size());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.taskmate.imports;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.BulkCreateResponse;
+import com.taskmate.pojos.BulkTaskResult;
+import com.taskmate.pojos.ImportProgress;
+import com.taskmate.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Task> created = new ArrayList<>();
+
+    // Creates every task with a title, like the service's validation would
+    private TaskImporter importer(int batchSize) {
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.createTasks(anyList())).thenAnswer(call -> {
+            List<Task> tasks = call.getArgument(0);
+            List<BulkTaskResult> results = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                if (task.getTitle() == null || task.getTitle().isBlank()) {
+                    results.add(BulkTaskResult.failed(i, List.of("Title is required")));
+                } else {
+                    created.add(task);
+                    results.add(BulkTaskResult.created(i, UUID.randomUUID()));
+                }
+            }
+            return new BulkCreateResponse(results);
+        });
+        return new TaskImporter(taskService, JsonMapper.builder().build(), batchSize,
+                directory.resolve("import"), directory.resolve("rejected"));
+    }
+
+    @Test
+    @DisplayName("Should read lines across mapped windows, with CRLF and without a final newline")
+    void testMappedLinesAcrossWindows() throws Exception {
+        Path file = directory.resolve("lines.txt");
+        Files.writeString(file, "first line\r\nsecond\n\nthird line is longer\nlast");
+
+        List<String> lines = new ArrayList<>();
+        try (MappedLineSource source = new MappedLineSource(file, 24)) {
+            String line;
+            while ((line = source.readLine()) != null) {
+                lines.add(line);
+            }
+            assertEquals(Files.size(file), source.bytesRead());
+        }
+
+        assertEquals(List.of("first line", "second", "", "third line is longer", "last"), lines);
+    }
+
+    @Test
+    @DisplayName("Should import a mapped CSV file in batches and write rejected rows to a file")
+    void testCsvFileImport() throws Exception {
+        Path input = Files.createDirectories(directory.resolve("import")).resolve("tasks.csv");
+        Files.writeString(input, String.join("\n",
+                "Title,Description,DueDate,Completed,Owner",
+                "Plain,Simple,2030-01-31,false,ann",
+                "\"Quoted, with comma\",\"Spans",
+                "two lines\",2030-01-31T09:30:00,true,bob",
+                ",No title,,,",
+                "Bad date,,tomorrow,,",
+                "Last,,,,"));
+        TaskImporter importer = importer(2);
+
+        ImportProgress started = importer.startFileImport("tasks.csv", null);
+        ImportProgress progress = started;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (progress.getStatus() == ImportProgress.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            progress = importer.getProgress(started.getId());
+        }
+
+        assertEquals(ImportProgress.Status.COMPLETED, progress.getStatus());
+        assertEquals(5, progress.getRowsRead());
+        assertEquals(3, progress.getImported());
+        assertEquals(2, progress.getRejected());
+        assertEquals(100.0, progress.getPercent());
+        assertEquals("Spans\ntwo lines", created.get(1).getDescription());
+        assertEquals(LocalDateTime.of(2030, 1, 31, 9, 30), created.get(1).getDueDate());
+        assertTrue(created.get(1).isCompleted());
+
+        List<String> rejected = Files.readAllLines(Path.of(progress.getRejectedFile()));
+        assertEquals(2, rejected.size());
+        assertTrue(rejected.get(0).contains("\"line\":6") && rejected.get(0).contains("Invalid dueDate"));
+        assertTrue(rejected.get(1).contains("\"line\":5") && rejected.get(1).contains("Title is required"));
+    }
+
+    @Test
+    @DisplayName("Should import a streamed NDJSON body, ignoring ids and rejecting malformed and non-object lines")
+    void testNdjsonStreamImport() {
+        String body = "{\"id\":\"" + UUID.randomUUID() + "\",\"title\":\"Exported\",\"overdue\":false}\n"
+                + "{not json\n"
+                + "null\n"
+                + "[\"Third\"]\n"
+                + "{\"title\":\"Second\",\"completed\":true}\n";
+        TaskImporter importer = importer(500);
+
+        ImportProgress progress = importer.importStream(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON, body.length());
+
+        assertEquals(ImportProgress.Status.COMPLETED, progress.getStatus());
+        assertEquals(2, progress.getImported());
+        assertEquals(3, progress.getRejected());
+        assertNull(created.get(0).getId());
+        assertTrue(created.get(1).isCompleted());
+    }
+
+    @Test
+    @DisplayName("Should refuse files outside the import directory")
+    void testRejectsPathsOutsideDirectory() {
+        TaskImporter importer = importer(500);
+
+        assertThrows(IllegalArgumentException.class, () -> importer.startFileImport("../secrets.csv", null));
+    }
+}
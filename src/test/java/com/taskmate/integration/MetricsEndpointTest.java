@@ -0,0 +1,63 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.metrics.StatementMetricsDataSource;
+import com.taskmate.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metricsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // Tests disable metrics export by default
+        "management.prometheus.metrics.export.enabled=true"
+})
+class MetricsEndpointTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Should expose service, SQL, pool and Hibernate metrics in Prometheus format")
+    void testPrometheusScrape() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Task task = taskService.createTask(new Task("Metrics Task", null, null));
+        taskService.getTaskById(task.getId().toString());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("taskmate_service_seconds{method=\"createTask\",quantile=\"0.99\"}")))
+                .andExpect(content().string(containsString("taskmate_service_seconds_count{method=\"getTaskById\"}")))
+                .andExpect(content().string(containsString("taskmate_jdbc_statements_seconds_count{type=\"insert\"}")))
+                .andExpect(content().string(containsString("taskmate_jdbc_statements_seconds_count{type=\"select\"}")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+                .andExpect(content().string(containsString("hibernate_entities_inserts")));
+    }
+
+    @Test
+    @DisplayName("Should wrap the pooled data source for statement timing")
+    void testDataSourceWrapped() {
+        assertInstanceOf(StatementMetricsDataSource.class, dataSource);
+    }
+}
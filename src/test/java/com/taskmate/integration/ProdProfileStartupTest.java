@@ -0,0 +1,50 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("prod")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:proddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class ProdProfileStartupTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    @DisplayName("Should build the schema from schema.sql alone and serve tasks with it")
+    void testSchemaComesFromScriptOnly() {
+        // Only schema.sql gives the id a database default; Hibernate's DDL would not
+        String idDefault = jdbcTemplate.queryForObject(
+                "SELECT COLUMN_DEFAULT FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'TASKS' AND COLUMN_NAME = 'ID'",
+                String.class);
+        assertTrue(idDefault != null && idDefault.contains("RANDOM_UUID"), "id default: " + idDefault);
+
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'TASKS' AND INDEX_NAME LIKE 'IDX_%'"
+                        + " ORDER BY INDEX_NAME",
+                String.class);
+        assertEquals(List.of("IDX_TASKS_DELETED_COMPLETED_DUE_DATE", "IDX_TASKS_DELETED_CREATED_AT",
+                "IDX_TASKS_DELETED_DUE_DATE", "IDX_TASKS_DELETED_ID", "IDX_TASKS_DELETED_UPDATED_AT"), indexes);
+
+        Task created = taskService.createTask(new Task("Prod profile", "Schema from script", null));
+        assertEquals("Prod profile", taskService.getTaskById(created.getId().toString()).getTitle());
+    }
+}
@@ -0,0 +1,165 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.pojos.WritePrecondition;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.routing.ReadWriteRoutingDataSource;
+import com.taskmate.routing.ReadYourWritesFilter;
+import com.taskmate.service.TaskService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two H2 databases stand in for the primary and a replica; the test plays the replication itself
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimarydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "taskmate.replicas.enabled=true",
+        "taskmate.replicas.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "taskmate.replicas.sticky-window=300ms",
+        "taskmate.replicas.max-lag=1s"
+})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routingreplicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    private JdbcTemplate replica;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM tasks");
+        routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should serve read-only service methods from the replica")
+    void testReadsGoToReplica() throws Exception {
+        UUID id = UUID.randomUUID();
+        replica.update("INSERT INTO tasks (id, title) VALUES (?, ?)", id, "Only on the replica");
+        long replicaReads = routing.getReplicaReadCount();
+
+        Task task = taskService.getTaskById(id.toString());
+
+        assertNotNull(task);
+        assertEquals("Only on the replica", task.getTitle());
+        assertTrue(routing.getReplicaReadCount() > replicaReads);
+        assertFalse(taskRepository.existsById(id));
+    }
+
+    @Test
+    @DisplayName("Should read the writing client's reads from the primary for the sticky window, then from the replica again")
+    void testReadYourWrites() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).addFilters(readYourWritesFilter).build();
+        replica.update("INSERT INTO tasks (id, title) VALUES (?, ?)", UUID.randomUUID(), "Replicated earlier");
+
+        Cookie lastWrite = mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Just written\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        // The writer reads its own write; any other client keeps reading from the replica
+        mockMvc.perform(firstPage().cookie(lastWrite))
+                .andExpect(jsonPath("$.content[*].title", contains("Just written")));
+        mockMvc.perform(firstPage())
+                .andExpect(jsonPath("$.content[*].title", contains("Replicated earlier")));
+
+        Thread.sleep(400);
+        mockMvc.perform(firstPage().cookie(lastWrite))
+                .andExpect(jsonPath("$.content[*].title", contains("Replicated earlier")));
+    }
+
+    @Test
+    @DisplayName("Should check write preconditions on the primary")
+    void testPreconditionsOnPrimary() throws Exception {
+        UUID id = UUID.randomUUID();
+        replica.update("INSERT INTO tasks (id, title) VALUES (?, ?)", id, "Only on the replica");
+
+        assertNotNull(taskService.getTaskVersion(id.toString()));
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle("Patched");
+        // The task's ETag from the replica, but the conditional write only ever sees the primary
+        WritePrecondition precondition = WritePrecondition.of(taskService.getTaskVersion(id.toString()).getETag(), null);
+        assertNull(taskService.updateTask(id.toString(), patch, precondition));
+        assertFalse(taskService.softDeleteTask(id.toString(), precondition));
+    }
+
+    @Test
+    @DisplayName("Should not cache a replica read that may predate a write beyond max-lag")
+    void testLaggingReplicaReadIsNotKept() throws Exception {
+        Task created = taskService.createTask(new Task("Written", null, null));
+        // The replica has not applied the write yet; a caller outside the writing request is not sticky
+        replica.update("INSERT INTO tasks (id, title) VALUES (?, ?)", created.getId(), "Before the write");
+        assertFalse(routing.isSticky());
+        assertEquals("Before the write", taskService.getTaskById(created.getId().toString()).getTitle());
+
+        replica.update("UPDATE tasks SET title = ? WHERE id = ?", "Written", created.getId());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        String title = null;
+        while (System.currentTimeMillis() < deadline) {
+            title = taskService.getTaskById(created.getId().toString()).getTitle();
+            if (title.equals("Written")) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertEquals("Written", title);
+    }
+
+    private static MockHttpServletRequestBuilder firstPage() {
+        return get("/api/v1/tasks").param("cursor", "").param("sortBy", "createdAt").param("direction", "asc");
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskmate.integration;
+
+import com.taskmate.archive.TaskArchiver;
+import com.taskmate.entity.Task;
+import com.taskmate.repository.TaskArchiveRepository;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "taskmate.archive.enabled=false",
+        "taskmate.archive.retention=0s",
+        "taskmate.archive.batch-size=1"
+})
+class TaskArchiveTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskArchiveRepository taskArchiveRepository;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        taskArchiveRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should move deleted tasks to the archive in batches and keep listing and restoring them")
+    void testArchiveKeepsDeletedTasksVisible() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Task kept = taskService.createTask(new Task("Active", null, LocalDateTime.now().plusDays(1)));
+        Task first = taskService.createTask(new Task("Archived 1", "Old report", null));
+        Task second = taskService.createTask(new Task("Archived 2", null, null));
+        taskService.softDeleteTasks(List.of(first.getId().toString(), second.getId().toString()));
+        Thread.sleep(5);
+
+        assertEquals(2, taskArchiver.archive());
+
+        assertEquals(0, taskRepository.countByDeleted(true));
+        assertEquals(1, taskRepository.count());
+        assertEquals(2, taskArchiveRepository.count());
+        assertEquals(2, taskService.getTaskStatistics().getDeleted());
+
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(kept.getId().toString()));
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("deleted", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].deleted").value(true));
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("deleted", "true")
+                .param("q", "report"))
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(first.getId().toString()));
+        mockMvc.perform(get("/api/v1/tasks/" + second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Archived 2"));
+
+        assertEquals(1, taskService.restoreTasks(List.of(first.getId().toString())));
+
+        assertEquals(1, taskArchiveRepository.count());
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(jsonPath("$.content", hasSize(2)));
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("deleted", "true"))
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(second.getId().toString()));
+    }
+}
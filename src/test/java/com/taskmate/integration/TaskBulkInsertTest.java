@@ -0,0 +1,105 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.BulkCreateResponse;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: each path must commit the way it does in production
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "taskmate.bulk.chunk-size=100"
+})
+class TaskBulkInsertTest {
+
+    private static final int TASK_COUNT = 200;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Bulk creation should issue far fewer JDBC statements than one create per task")
+    void bulkCreateShouldReduceStatementCount() {
+        for (Task task : newTasks("Single")) {
+            taskService.createTask(task);
+        }
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        BulkCreateResponse response = taskService.createTasks(newTasks("Bulk"));
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(TASK_COUNT, response.getCreated());
+        assertEquals(TASK_COUNT, statistics.getEntityInsertCount());
+        assertTrue(singleStatements >= TASK_COUNT,
+                "Expected at least one statement per single create but was " + singleStatements);
+        // 200 tasks in chunks of 100 with batch_size 50 should need about 4 batched statements
+        assertTrue(bulkStatements <= TASK_COUNT / 20,
+                "Expected batched inserts but prepared " + bulkStatements + " statements");
+        assertEquals(2L * TASK_COUNT, taskRepository.count());
+    }
+
+    @Test
+    @DisplayName("Bulk creation should reject invalid items without failing valid ones")
+    void bulkCreateShouldReportInvalidItems() {
+        List<Task> tasks = newTasks("Mixed");
+        tasks.add(1, new Task("", null, null));
+
+        BulkCreateResponse response = taskService.createTasks(tasks);
+
+        assertEquals(TASK_COUNT, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals(1, response.getResults().get(1).getIndex());
+        assertFalse(response.getResults().get(1).isSuccess());
+        assertEquals(TASK_COUNT, taskRepository.count());
+    }
+
+    private List<Task> newTasks(String prefix) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            tasks.add(new Task(prefix + " Task " + i, "Description " + i, LocalDateTime.now().plusDays(1)));
+        }
+        return tasks;
+    }
+}
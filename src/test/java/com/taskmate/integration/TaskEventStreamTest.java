@@ -0,0 +1,114 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// Not @Transactional: events are published once a write commits
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:eventsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TaskEventStreamTest {
+
+    private static final Pattern CREATED = Pattern.compile("id:\\s?(\\w+-\\d+)\\nevent:\\s?created\\ndata:\\s?(\\{.*})");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should push created tasks and replay missed events after Last-Event-ID")
+    void testPushAndResume() throws Exception {
+        MvcResult first = subscribe(null);
+        Task streamed = taskService.createTask(new Task("Streamed", null, null));
+        Matcher event = await(first.getResponse(), CREATED);
+        assertTrue(event.group(2).contains(streamed.getId().toString()));
+
+        // Created while the client was away
+        Task missed = taskService.createTask(new Task("Missed", null, null));
+        MvcResult resumed = subscribe(event.group(1));
+        Matcher replayed = await(resumed.getResponse(), CREATED);
+        assertTrue(replayed.group(2).contains(missed.getId().toString()));
+        assertFalse(resumed.getResponse().getContentAsString().contains(streamed.getId().toString()));
+    }
+
+    @Test
+    @DisplayName("Should tell a client resuming from an unknown event to resync")
+    void testResyncOnUnknownLastEventId() throws Exception {
+        MvcResult result = subscribe("999999999");
+        await(result.getResponse(), Pattern.compile("event:\\s?resync"));
+    }
+
+    @Test
+    @DisplayName("Should resync a client resuming from an event of an earlier run")
+    void testResyncOnEventOfEarlierRun() throws Exception {
+        MvcResult first = subscribe(null);
+        taskService.createTask(new Task("Before the resume", null, null));
+        String eventId = await(first.getResponse(), CREATED).group(1);
+
+        // Same sequence, another boot id: replaying from it would skip or repeat unrelated events
+        MvcResult result = subscribe("earlier-" + eventId.substring(eventId.indexOf('-') + 1));
+        await(result.getResponse(), Pattern.compile("event:\\s?resync"));
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder events = get("/api/v1/tasks/events");
+        if (lastEventId != null) {
+            events.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(events).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    // Events are written by a sender thread after the commit
+    private static Matcher await(MockHttpServletResponse response, Pattern pattern) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            Matcher matcher = pattern.matcher(response.getContentAsString());
+            if (matcher.find()) {
+                return matcher;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "No event matching " + pattern);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.taskmate.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jayway.jsonpath.JsonPath;
 import com.taskmate.entity.Task;
+import com.taskmate.pojos.BulkTaskRequest;
+import com.taskmate.service.TaskService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +18,21 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +48,9 @@ class TaskIntegrationTest {
     @Autowired
     private WebApplicationContext webApplicationContext;
 
+    @Autowired
+    private TaskService taskService;
+
     private ObjectMapper objectMapper;
 
     private MockMvc mockMvc;
@@ -70,6 +88,12 @@ class TaskIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(invalidTask)))
                 .andExpect(status().isBadRequest());
+
+        // Ids are generated; a supplied one could overwrite an existing task
+        mockMvc.perform(post("/api/v1/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"" + UUID.randomUUID() + "\",\"title\":\"Chosen id\"}"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -88,4 +112,369 @@ class TaskIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
     }
+
+    @Test
+    @DisplayName("Should walk tasks with cursor pagination")
+    @Transactional
+    void shouldWalkTasksWithCursorPagination() throws Exception {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        for (int i = 1; i <= 3; i++) {
+            Task task = new Task("Cursor Task " + i, "Cursor Description", LocalDateTime.now().plusDays(i));
+            mockMvc.perform(post("/api/v1/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(task)))
+                    .andExpect(status().isCreated());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/tasks")
+                .param("cursor", "")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("cursor", nextCursor)
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("Should page without the count when total=false")
+    @Transactional
+    void shouldPageWithoutTotal() throws Exception {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        for (int i = 1; i <= 3; i++) {
+            Task task = new Task("Uncounted Task " + i, "Uncounted Description", LocalDateTime.now().plusDays(i));
+            mockMvc.perform(post("/api/v1/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(task)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("size", "2")
+                .param("total", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextPage").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should walk tasks by id in creation order with cursor pagination")
+    @Transactional
+    void shouldWalkTasksByIdInCreationOrder() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/api/v1/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"Id Task " + i + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/tasks")
+                .param("cursor", "")
+                .param("size", "2")
+                .param("sortBy", "id")
+                .param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Id Task 1"))
+                .andExpect(jsonPath("$.content[1].title").value("Id Task 2"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("cursor", (String) JsonPath.read(firstPage, "$.nextCursor"))
+                .param("size", "2")
+                .param("sortBy", "id")
+                .param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title").value("Id Task 3"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("Should reject cursor pagination on a non-indexed sort field")
+    @Transactional
+    void shouldRejectCursorPaginationOnUnsupportedSort() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("cursor", "")
+                .param("sortBy", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+    }
+
+    @Test
+    @DisplayName("Should combine full-text search with the list filters")
+    @Transactional
+    void shouldSearchTasksWithFilters() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        Task kept = taskService.createTask(new Task("Invoice Acme", "Send the quarterly invoice", LocalDateTime.now().plusDays(1)));
+        taskService.createTask(new Task("Invoice Globex", "Send the monthly invoice", LocalDateTime.now().plusDays(1)));
+        Task removed = taskService.createTask(new Task("Quarterly invoice draft", null, null));
+        taskService.softDeleteTask(removed.getId().toString());
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("q", "INVOICE quarter"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(kept.getId().toString()));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("q", "invoice quarter")
+                .param("deleted", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(removed.getId().toString()));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("q", "invoice")
+                .param("cursor", "")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("q", "?!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should report a malformed NDJSON line as a failed item and create the rest")
+    @Transactional
+    void shouldCreateNdjsonTasksAroundMalformedLine() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        String body = "{\"title\":\"First\"}\n{\"title\": \n\n{\"title\":\"Third\"}\n";
+
+        mockMvc.perform(post("/api/v1/tasks/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].success").value(false))
+                .andExpect(jsonPath("$.results[1].errors[0]").value(startsWith("Malformed JSON")))
+                .andExpect(jsonPath("$.results[2].success").value(true));
+    }
+
+    @Test
+    @DisplayName("Should export only tasks matching the filters")
+    @Transactional
+    void shouldExportOnlyMatchingTasks() {
+        Task kept = taskService.createTask(new Task("Export Task", "Exported", LocalDateTime.now().plusDays(1)));
+        taskService.createTask(new Task("Another Export Task", "Exported", LocalDateTime.now().plusDays(2)));
+        Task removed = taskService.createTask(new Task("Deleted Export Task", "Not exported", null));
+        taskService.softDeleteTask(removed.getId().toString());
+
+        List<String> titles = new ArrayList<>();
+        long count = taskService.exportTasks(null, null, null, null, null, false, task -> titles.add(task.getTitle()));
+
+        assertEquals(2, count);
+        assertEquals(Set.of(kept.getTitle(), "Another Export Task"), new HashSet<>(titles));
+    }
+
+    @Test
+    @DisplayName("Should bulk soft delete and restore tasks by id")
+    @Transactional
+    void shouldBulkSoftDeleteAndRestoreTasks() throws Exception {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        Task first = taskService.createTask(new Task("Bulk Delete 1", null, null));
+        Task second = taskService.createTask(new Task("Bulk Delete 2", null, null));
+        taskService.createTask(new Task("Bulk Keep", null, null));
+        BulkTaskRequest request = new BulkTaskRequest(List.of(first.getId().toString(), second.getId().toString()));
+
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title").value("Bulk Keep"));
+
+        // Already deleted rows are not counted twice
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(jsonPath("$.affected").value(0));
+
+        mockMvc.perform(post("/api/v1/tasks/bulk-restore")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(jsonPath("$.content", hasSize(3)));
+    }
+
+    @Test
+    @DisplayName("Should reject a bulk delete or restore without ids or filters")
+    @Transactional
+    void shouldRejectBulkUpdateWithoutSelection() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        taskService.createTask(new Task("Bulk Untouched", null, null));
+
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/bulk-restore")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Should reject bulk updates whose filters select every task")
+    @Transactional
+    void shouldRejectBulkUpdateWithUnselectiveFilters() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        taskService.createTask(new Task("Bulk Unfiltered", null, null));
+
+        // status and priority are not filtered on, and overdue=false adds no predicate
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete").param("status", "TODO"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete").param("priority", "HIGH"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/bulk-delete").param("overdue", "false"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/bulk-restore").param("status", "TODO"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/bulk-restore").param("overdue", "false"))
+                .andExpect(status().isBadRequest());
+        // Overdue tasks are active, so there is nothing deleted to restore among them
+        mockMvc.perform(post("/api/v1/tasks/bulk-restore").param("overdue", "true"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Should return only the requested fields")
+    @Transactional
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        taskService.createTask(new Task("Sparse Task", "A long description the list view never shows", null));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Sparse Task"))
+                .andExpect(jsonPath("$.content[0].id").exists())
+                .andExpect(jsonPath("$.content[0].completed").value(false))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].createdAt").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("fields", "title,dueDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Sparse Task"))
+                .andExpect(jsonPath("$.content[0].id").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("fields", "title,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer conditional GETs of a task with 304 until it changes")
+    @Transactional
+    void shouldAnswerConditionalTaskGet() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Task task = taskService.createTask(new Task("ETag Task", null, null));
+        String path = "/api/v1/tasks/" + task.getId();
+
+        String eTag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(path).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A stale If-Match leaves the task alone
+        mockMvc.perform(delete(path).header("If-Match", "\"stale\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch(path).contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Changed\"}")
+                        .header("If-Match", "\"" + (task.getVersion() + 1) + "\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(path).header("If-Match", eTag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(path).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(true));
+    }
+
+    @Test
+    @DisplayName("Should answer conditional GETs of a list with 304 until a matching task changes")
+    @Transactional
+    void shouldAnswerConditionalListGet() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        taskService.createTask(new Task("Listed Task", null, null));
+
+        String eTag = mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // Another page or projection of the same rows is a different representation
+        mockMvc.perform(get("/api/v1/tasks").param("fields", "summary").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+
+        // A keyset page is versioned by its rows
+        String cursorETag = mockMvc.perform(get("/api/v1/tasks").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/tasks").param("cursor", "").header("If-None-Match", cursorETag))
+                .andExpect(status().isNotModified());
+
+        taskService.createTask(new Task("Another Task", null, null));
+        mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)));
+        mockMvc.perform(get("/api/v1/tasks").param("cursor", "").header("If-None-Match", cursorETag))
+                .andExpect(status().isOk());
+    }
 }
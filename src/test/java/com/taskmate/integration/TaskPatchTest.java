@@ -0,0 +1,155 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: statement counts must reflect what a request issues on its own
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:patchdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TaskPatchTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private Statistics statistics;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        task = taskService.createTask(new Task("Patch Task", "Original description", LocalDateTime.now().plusDays(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should patch a cached task with a single UPDATE and no SELECT")
+    void testCachedPatchIsOneStatement() {
+        taskService.getTaskById(task.getId().toString());
+        statistics.clear();
+
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle("Patched Title");
+        patch.setCompleted(true);
+        patch.setVersion(task.getVersion());
+        Task updated = taskService.updateTask(task.getId().toString(), patch);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals("Patched Title", updated.getTitle());
+        assertEquals(task.getVersion() + 1, updated.getVersion());
+
+        // The representation built from the cache is what the database now holds
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(updated.getTitle(), stored.getTitle());
+        assertEquals(updated.getDescription(), stored.getDescription());
+        assertEquals(updated.isCompleted(), stored.isCompleted());
+        assertEquals(updated.getUpdatedAt(), stored.getUpdatedAt());
+        assertEquals(updated.getVersion(), stored.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should read an uncached task back with one SELECT after the UPDATE")
+    void testUncachedPatchIsTwoStatements() {
+        statistics.clear();
+
+        TaskPatch patch = new TaskPatch();
+        patch.setDescription(null);
+        Task updated = taskService.updateTask(task.getId().toString(), patch);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertNull(updated.getDescription());
+        assertEquals("Patch Task", updated.getTitle());
+    }
+
+    @Test
+    @DisplayName("Should reject a stale version without changing the task")
+    void testStaleVersionConflicts() {
+        TaskPatch first = new TaskPatch();
+        first.setTitle("First");
+        first.setVersion(task.getVersion());
+        taskService.updateTask(task.getId().toString(), first);
+
+        TaskPatch second = new TaskPatch();
+        second.setTitle("Second");
+        second.setVersion(task.getVersion());
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> taskService.updateTask(task.getId().toString(), second));
+        assertEquals("First", taskRepository.findById(task.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should expose PATCH with an ETag, 409 on conflicts and 404 for missing tasks")
+    void testPatchEndpoint() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        String path = "/api/v1/tasks/" + task.getId();
+
+        mockMvc.perform(patch(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Via HTTP\",\"version\":" + task.getVersion() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.title").value("Via HTTP"))
+                .andExpect(jsonPath("$.description").value("Original description"))
+                .andExpect(jsonPath("$.version").value(task.getVersion() + 1));
+
+        mockMvc.perform(patch(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Stale\",\"version\":" + task.getVersion() + "}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(patch(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/tasks/00000000-0000-0000-0000-000000000000")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Nobody\"}"))
+                .andExpect(status().isNotFound());
+    }
+}
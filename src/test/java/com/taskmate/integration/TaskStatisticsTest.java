@@ -0,0 +1,118 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.pojos.TaskStatistics;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.service.TaskService;
+import com.taskmate.stats.TaskCounters;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: counters only take deltas of committed writes. Scheduled recounts are pushed
+// out of the test's way so the incremental counts are what gets checked.
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "taskmate.stats.reconcile-interval=1h",
+        "taskmate.stats.drift-check-interval=1h"
+})
+class TaskStatisticsTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCounters taskCounters;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @BeforeEach
+    void setUp() {
+        taskCounters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should keep counts in step with writes and serve them without queries")
+    void testCountsFollowWrites() throws Exception {
+        Task overdue = taskService.createTask(new Task("Overdue", null, LocalDateTime.now().minusDays(1)));
+        taskService.createTask(new Task("Upcoming", null, LocalDateTime.now().plusDays(1)));
+        taskService.createTasks(List.of(new Task("Bulk 1", null, null), new Task("Bulk 2", null, null)));
+        Task deleted = taskService.createTask(new Task("Deleted", null, null));
+        taskService.getTaskById(deleted.getId().toString());
+        taskService.deleteTask(deleted.getId().toString());
+
+        // Completing the cached overdue task is an exact delta
+        taskService.getTaskById(overdue.getId().toString());
+        TaskPatch patch = new TaskPatch();
+        patch.setCompleted(true);
+        patch.setVersion(overdue.getVersion());
+        taskService.updateTask(overdue.getId().toString(), patch);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        mockMvc.perform(get("/api/v1/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.overdue").value(0))
+                .andExpect(jsonPath("$.deleted").value(0));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should correct drift from soft deletes on reconciliation")
+    void testReconcileCorrectsDrift() {
+        Task overdue = taskService.createTask(new Task("Overdue", null, LocalDateTime.now().minusDays(1)));
+        taskService.createTask(new Task("Open", null, null));
+
+        // Which counters a soft deleted row leaves is only known to the database
+        taskService.softDeleteTask(overdue.getId().toString());
+        TaskStatistics incremental = taskService.getTaskStatistics();
+        assertEquals(1, incremental.getTotal());
+        assertEquals(1, incremental.getDeleted());
+        assertEquals(1, incremental.getOverdue());
+
+        taskCounters.reconcileIfDrifted();
+
+        TaskStatistics reconciled = taskService.getTaskStatistics();
+        assertEquals(1, reconciled.getTotal());
+        assertEquals(1, reconciled.getDeleted());
+        assertEquals(0, reconciled.getOverdue());
+        assertEquals(1, reconciled.getLastCorrection());
+    }
+}
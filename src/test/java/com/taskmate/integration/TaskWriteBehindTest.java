@@ -0,0 +1,78 @@
+package com.taskmate.integration;
+
+import com.taskmate.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class TaskWriteBehindTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:writebehinddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("taskmate.write-behind.enabled", () -> "true");
+        registry.add("taskmate.write-behind.flush-interval", () -> "200ms");
+        registry.add("taskmate.write-behind.journal", () -> journalDirectory.resolve("tasks.journal").toString());
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should accept a task with 202, serve it by id at once and insert it shortly after")
+    void testAcceptedTaskIsReadableAndInserted() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        String body = mockMvc.perform(post("/api/v1/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Write behind\",\"description\":\"Queued\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.result.id").exists())
+                .andReturn().getResponse().getContentAsString();
+        UUID id = UUID.fromString(body.replaceAll(".*\"id\":\"([0-9a-f-]{36})\".*", "$1"));
+
+        mockMvc.perform(get("/api/v1/tasks/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Write behind"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!taskRepository.existsById(id) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(taskRepository.existsById(id));
+        mockMvc.perform(get("/api/v1/tasks/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Queued"));
+    }
+}
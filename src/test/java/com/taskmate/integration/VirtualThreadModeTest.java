@@ -0,0 +1,100 @@
+package com.taskmate.integration;
+
+import com.taskmate.entity.Task;
+import com.taskmate.repository.ConnectionConcurrencyGate;
+import com.taskmate.repository.TaskRepository;
+import com.taskmate.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtualdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=4"
+})
+class VirtualThreadModeTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private ConnectionConcurrencyGate gate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gate = dataSource.unwrap(ConnectionConcurrencyGate.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should size the gate to the pool and put it in front of every connection checkout")
+    void testGateWrapsDataSource() throws Exception {
+        assertEquals(4, gate.getPermits());
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(gate.getAvailablePermits() < 4);
+        }
+        assertEquals(4, gate.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should hold the permit for a whole service transaction, such as an export")
+    void testExportHoldsPermitForItsTransaction() {
+        for (int i = 0; i < 3; i++) {
+            taskService.createTask(new Task("Export " + i, null, null));
+        }
+        List<Integer> available = new ArrayList<>();
+
+        long exported = taskService.exportTasks(null, null, null, null, null, false,
+                task -> available.add(gate.getAvailablePermits()));
+
+        assertEquals(3, exported);
+        assertTrue(available.stream().allMatch(permits -> permits < 4));
+        assertEquals(4, gate.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should serve many more concurrent callers than pool connections")
+    void testManyConcurrentCallers() throws Exception {
+        List<Future<Task>> creates = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                Task task = new Task("Task " + i, null, null);
+                creates.add(executor.submit(() -> taskService.createTask(task)));
+            }
+            for (Future<Task> create : creates) {
+                assertTrue(create.get(30, TimeUnit.SECONDS).getId() != null);
+            }
+        }
+
+        assertEquals(200, taskRepository.count());
+        assertEquals(4, gate.getAvailablePermits());
+    }
+}
@@ -0,0 +1,113 @@
+package com.taskmate.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long TARGET = Duration.ofMillis(100).toNanos();
+
+    @Test
+    @DisplayName("Should reject requests over the limit without queueing them")
+    void testRejectsOverLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, Duration.ofMillis(100), 0.5);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(1, limit.getRejectedCount());
+
+        limit.releaseUnsampled();
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should grow by about one per limit's worth of fast requests while in use")
+    void testAdditiveIncrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10, Duration.ofMillis(100), 0.5);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            fill(limit);
+            limit.release(start, start + TARGET / 2, false);
+            drain(limit);
+        }
+        assertEquals(5, limit.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            fill(limit);
+            limit.release(start, start + TARGET / 2, false);
+            drain(limit);
+        }
+        assertEquals(6, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should not grow while the limit is mostly unused")
+    void testNoIncreaseWhenIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, Duration.ofMillis(100), 0.5);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(start, start + TARGET / 2, false);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should back off once per round of slow or failed requests, down to the minimum")
+    void testMultiplicativeDecrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 2, 100, Duration.ofMillis(100), 0.5);
+        long start = System.nanoTime() + 1;
+
+        // Every request of the slow round started before the first decrease
+        fill(limit);
+        long end = start + 2 * TARGET;
+        for (int i = 0; i < 16; i++) {
+            limit.release(start, end, false);
+        }
+        assertEquals(8, limit.getLimit());
+
+        assertTrue(limit.tryAcquire());
+        limit.release(end + 1, end + 2, true);
+        assertEquals(4, limit.getLimit());
+
+        // Never below the minimum
+        for (int round = 1; round <= 5; round++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(end + 10L * round, end + 10L * round + 2 * TARGET, false);
+        }
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should reject limits outside 1 <= min <= initial <= max")
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit(5, 0, 10, Duration.ofMillis(100), 0.9));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit(20, 1, 10, Duration.ofMillis(100), 0.9));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit(5, 1, 10, Duration.ofMillis(100), 1.0));
+    }
+
+    private static void fill(AdaptiveConcurrencyLimit limit) {
+        while (limit.tryAcquire()) {
+            // take every free slot
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimit limit) {
+        while (limit.getInFlight() > 0) {
+            limit.releaseUnsampled();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.taskmate.limiter;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private AdaptiveConcurrencyLimit pointLimit;
+    private AdaptiveConcurrencyLimit listLimit;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        pointLimit = new AdaptiveConcurrencyLimit(1, 1, 1, Duration.ofSeconds(1), 0.9);
+        listLimit = new AdaptiveConcurrencyLimit(1, 1, 1, Duration.ofSeconds(1), 0.9);
+        interceptor = new ConcurrencyLimitInterceptor(
+                Map.of(RequestBudget.POINT, pointLimit, RequestBudget.LIST, listLimit),
+                JsonMapper.builder().build(), Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After once the budget is used up, and admit again after completion")
+    void testShedsOverLimit() throws Exception {
+        HandlerMethod handler = handler("getTask");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(first, firstResponse, handler));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), rejected, handler));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("SERVER_BUSY"));
+
+        interceptor.afterCompletion(first, firstResponse, handler, null);
+        assertEquals(0, pointLimit.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+    }
+
+    @Test
+    @DisplayName("Should keep list requests from taking the point budget")
+    void testSeparateBudgets() throws Exception {
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("listTasks")));
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("listTasks")));
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("getTask")));
+        assertEquals(1, listLimit.getRejectedCount());
+        assertEquals(0, pointLimit.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("Should hold a streaming request's slot until its async dispatch completes")
+    void testAsyncDispatchReleasesOnce() throws Exception {
+        HandlerMethod handler = handler("exportTasks");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+        assertEquals(1, listLimit.getInFlight());
+
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        assertEquals(0, listLimit.getInFlight());
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getDeclaredMethod(name));
+    }
+
+    static class Handlers {
+
+        void getTask() {
+        }
+
+        @ConcurrencyBudget(RequestBudget.LIST)
+        void listTasks() {
+        }
+
+        @ConcurrencyBudget(value = RequestBudget.LIST, sampleLatency = false)
+        void exportTasks() {
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskmate.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionConcurrencyGateTest {
+
+    @Test
+    @DisplayName("Should never hand out more connections at once than it has permits")
+    void testConcurrencyBoundedByPermits() throws Exception {
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(call -> {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            Connection connection = mock(Connection.class);
+            doAnswer(close -> open.decrementAndGet()).when(connection).close();
+            return connection;
+        });
+        ConnectionConcurrencyGate gate = new ConnectionConcurrencyGate(pool, 4, Duration.ofSeconds(30));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Object>> calls = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                calls.add(executor.submit(() -> {
+                    try (Connection connection = gate.getConnection()) {
+                        Thread.sleep(5);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Object> call : calls) {
+                call.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(4, maxOpen.get());
+        assertEquals(4, gate.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should hold the permit until the connection is closed, releasing it once")
+    void testPermitHeldUntilClose() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        ConnectionConcurrencyGate gate = new ConnectionConcurrencyGate(pool, 2, Duration.ofMillis(50));
+
+        Connection connection = gate.getConnection();
+        assertEquals(1, gate.getAvailablePermits());
+
+        connection.close();
+        connection.close();
+        assertEquals(2, gate.getAvailablePermits());
+        verify(pooled, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Should fail with a transient exception when no connection frees up in time")
+    void testAcquireTimeout() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(call -> mock(Connection.class));
+        ConnectionConcurrencyGate gate = new ConnectionConcurrencyGate(pool, 1, Duration.ofMillis(50));
+
+        Connection held = gate.getConnection();
+        assertThrows(SQLTransientConnectionException.class, gate::getConnection);
+
+        held.close();
+        assertEquals(1, gate.getAvailablePermits());
+        gate.getConnection().close();
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the pool fails to hand out a connection")
+    void testReleaseOnFailure() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLException("pool closed"));
+        ConnectionConcurrencyGate gate = new ConnectionConcurrencyGate(pool, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, gate::getConnection);
+        assertEquals(1, gate.getAvailablePermits());
+    }
+}
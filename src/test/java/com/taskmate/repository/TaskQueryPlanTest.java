@@ -0,0 +1,185 @@
+package com.taskmate.repository;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskSpecification;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the repository queries behind the list endpoints for each TaskSpecification filter shape and
+ * supported sort order, captures the SQL Hibernate issues for them and fails unless H2 plans each of
+ * those statements on the index expected for the shape, with the shape's predicates as its index
+ * condition rather than filters applied to every row of an index walk.
+ * <p>
+ * Only active tasks are covered: a deleted list reads the DeletedTask union, whose archive half has
+ * no predicate to use an index for.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plandb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.taskmate.repository.TaskQueryPlanTest$CapturedStatements"
+})
+@Transactional
+class TaskQueryPlanTest {
+
+    private static final String COLUMNS = "id, title, description, completed, deleted, due_date, created_at, updated_at";
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final Pattern INDEX_ACCESS = Pattern.compile("/\\* PUBLIC\\.(IDX_TASKS_\\w+)(?:: (.*?))? ?\\*/");
+
+    // Sorts as the offset list builds them from sortBy and direction
+    private static final List<Sort> SORTS = List.of(
+            Sort.by("createdAt").descending(),
+            Sort.by("createdAt").ascending(),
+            Sort.by("dueDate").ascending(),
+            Sort.by("dueDate").descending()
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Timestamp created = Timestamp.valueOf(BASE.plusMinutes(i));
+            rows.add(new Object[] {
+                    UUID.randomUUID(), "Task " + i, "Description " + i, i % 3 == 0, i % 10 == 0,
+                    i % 7 == 0 ? null : Timestamp.valueOf(BASE.plusHours(i)), created, created
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // Filter shapes generated by TaskSpecification.filterTasks, with the index each must be planned on
+    // and the conditions that index has to apply. Every index leads with deleted, so for active tasks
+    // alone the sort picks which one
+    static Stream<Arguments> filters() {
+        return Stream.of(
+                Arguments.of("active", TaskSpecification.filterTasks(null, null, null, null, null, false),
+                        "IDX_TASKS_DELETED_\\w+", List.of("DELETED =")),
+                Arguments.of("due range", TaskSpecification.filterTasks(null, null, null,
+                        BASE, BASE.plusMonths(1), false),
+                        "IDX_TASKS_DELETED_DUE_DATE", List.of("DELETED =", "DUE_DATE >=", "DUE_DATE <=")),
+                Arguments.of("overdue", TaskSpecification.filterTasks(null, null, true, null, null, false,
+                        BASE.plusDays(14)),
+                        "IDX_TASKS_DELETED_COMPLETED_DUE_DATE", List.of("DELETED =", "COMPLETED =", "DUE_DATE <"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void listQueriesShouldUseAnIndex(String filter, Specification<Task> spec, String index, List<String> conditions) {
+        for (Sort sort : SORTS) {
+            // A middle page, so the count query is issued as well
+            assertIndexed(capture(() -> taskRepository.findAll(spec, PageRequest.of(2, 10, sort))), index, conditions);
+            assertIndexed(capture(() -> taskRepository.findFields(spec, PageRequest.of(2, 10, sort),
+                    TaskField.parse("id,title"))), index, conditions);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void versionQueriesShouldUseAnIndex(String filter, Specification<Task> spec, String index, List<String> conditions) {
+        assertIndexed(capture(() -> taskRepository.findVersion(spec, filter)), index, conditions);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void keysetQueriesShouldUseAnIndex(String filter, Specification<Task> spec, String index, List<String> conditions) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        ScrollPosition after = ScrollPosition.forward(Map.of(
+                "createdAt", BASE.plusHours(4), "id", new UUID(0, 0)));
+        for (ScrollPosition position : List.of(ScrollPosition.keyset(), after)) {
+            assertIndexed(capture(() -> taskRepository.findBy(spec,
+                    query -> query.sortBy(sort).limit(10).scroll(position))), index, conditions);
+        }
+    }
+
+    private List<String> capture(Runnable query) {
+        CapturedStatements.statements.clear();
+        query.run();
+        List<String> captured = List.copyOf(CapturedStatements.statements);
+        assertFalse(captured.isEmpty(), "No statement captured");
+        return captured;
+    }
+
+    // H2 notes the index it reads as /* PUBLIC.INDEX_NAME: CONDITION AND ... */; an index it only
+    // walks, filtering each row, shows no condition, and a table scan shows the scan index
+    private void assertIndexed(List<String> statements, String index, List<String> conditions) {
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), () -> "Table scan for " + sql + "\n" + plan);
+            Matcher access = INDEX_ACCESS.matcher(plan.replace("\"", "").replaceAll("\\s+", " ").toUpperCase());
+            assertTrue(access.find(), () -> "No task index used for " + sql + "\n" + plan);
+            assertTrue(access.group(1).matches(index),
+                    () -> "Expected " + index + " but got " + access.group(1) + " for " + sql + "\n" + plan);
+            String condition = access.group(2) != null ? access.group(2) : "";
+            for (String expected : conditions) {
+                assertTrue(condition.contains(expected),
+                        () -> "No index condition " + expected + " for " + sql + "\n" + plan);
+            }
+        }
+    }
+
+    // H2 picks the plan without looking at the values, but every parameter has to be set
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    explain.setObject(i, null);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    // Hibernate's statement inspector for this context, instantiated by class name
+    public static class CapturedStatements implements StatementInspector {
+
+        private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.taskmate.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaPoolTest {
+
+    @Test
+    @DisplayName("Should spread connections round-robin over the replicas")
+    void testRoundRobin() throws SQLException {
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        ReplicaPool pool = new ReplicaPool(List.of(dataSource(first), dataSource(second)), 1);
+
+        assertSame(first, pool.getConnection());
+        assertSame(second, pool.getConnection());
+        assertSame(first, pool.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should skip a replica that fails to connect until a health check passes again")
+    void testFailoverAndRecovery() throws SQLException {
+        Connection healthy = mock(Connection.class);
+        Connection recovered = mock(Connection.class);
+        when(recovered.isValid(anyInt())).thenReturn(true);
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(recovered);
+        ReplicaPool pool = new ReplicaPool(List.of(failing, dataSource(healthy)), 1);
+
+        assertSame(healthy, pool.getConnection());
+        assertEquals(1, pool.getUpCount());
+        assertSame(healthy, pool.getConnection());
+
+        pool.checkHealth();
+        assertEquals(2, pool.getUpCount());
+    }
+
+    @Test
+    @DisplayName("Should return no connection when every replica is down, so reads fall back to the primary")
+    void testAllDown() throws SQLException {
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaPool pool = new ReplicaPool(List.of(failing), 1);
+
+        assertNull(pool.getConnection());
+        assertNull(pool.getConnection());
+        assertEquals(0, pool.getUpCount());
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        return dataSource;
+    }
+}
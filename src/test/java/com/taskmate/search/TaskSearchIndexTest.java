@@ -0,0 +1,139 @@
+package com.taskmate.search;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.SearchIndexStatistics;
+import com.taskmate.repository.TaskArchiveRepository;
+import com.taskmate.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskSearchIndexTest {
+
+    private TaskRepository taskRepository;
+    private TaskArchiveRepository taskArchiveRepository;
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        taskArchiveRepository = mock(TaskArchiveRepository.class);
+        when(taskArchiveRepository.streamAll()).thenAnswer(invocation -> Stream.empty());
+        index = new TaskSearchIndex(taskRepository, taskArchiveRepository, mock(PlatformTransactionManager.class));
+    }
+
+    private static Task task(String title, String description) {
+        Task task = new Task(title, description, null);
+        ReflectionTestUtils.setField(task, "id", UUID.randomUUID());
+        return task;
+    }
+
+    @Test
+    @DisplayName("Should split text into lowercase, deduplicated letter and digit runs")
+    void testTokenize() {
+        assertEquals(List.of("q3", "report", "draft"), TaskSearchIndex.tokenize("Q3 report: DRAFT, report-draft"));
+        assertEquals(List.of(), TaskSearchIndex.tokenize(" -- "));
+        assertEquals(List.of(), TaskSearchIndex.tokenize(null));
+    }
+
+    @Test
+    @DisplayName("Should match every term as a prefix and require all terms")
+    void testPrefixAndMatching() {
+        Task report = task("Quarterly report", "Draft for the board");
+        Task review = task("Review report", null);
+        Task groceries = task("Groceries", "Milk and bread");
+        index.indexAll(List.of(report, review, groceries));
+
+        assertEquals(Set.of(report.getId(), review.getId()), index.search("rep"));
+        assertEquals(Set.of(report.getId()), index.search("REPORT dra"));
+        assertEquals(Set.of(groceries.getId()), index.search("milk"));
+        assertEquals(Set.of(), index.search("report milk"));
+    }
+
+    @Test
+    @DisplayName("Should forget the old terms of an updated task and retire its document")
+    void testUpdateRetiresOldDocument() {
+        Task task = task("Call plumber", null);
+        index.index(task);
+
+        ReflectionTestUtils.setField(task, "title", "Call electrician");
+        index.index(task);
+
+        assertEquals(Set.of(), index.search("plumber"));
+        assertEquals(Set.of(task.getId()), index.search("electrician"));
+        SearchIndexStatistics statistics = index.statistics();
+        assertEquals(1, statistics.getDocuments());
+        assertEquals(1, statistics.getRetiredDocuments());
+    }
+
+    @Test
+    @DisplayName("Should not match removed tasks")
+    void testRemove() {
+        Task task = task("Pay rent", null);
+        index.index(task);
+
+        index.remove(task.getId());
+
+        assertEquals(Set.of(), index.search("rent"));
+        assertEquals(0, index.statistics().getDocuments());
+    }
+
+    @Test
+    @DisplayName("Should reject search text without terms, however many tasks the terms match")
+    void testRejectsUnsearchableText() {
+        index.indexAll(List.of(task("Task one", null), task("Task two", null)));
+
+        assertThrows(IllegalArgumentException.class, () -> index.search("!!"));
+        assertEquals(2, index.search("task").size());
+        assertEquals(1, index.search("task one").size());
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the repository and compact retired documents")
+    void testRebuild() {
+        Task task = task("Renew passport", "Photos needed");
+        index.index(task);
+        index.index(task);
+        when(taskRepository.streamAll(any(Specification.class))).thenReturn(Stream.of(task));
+
+        assertTrue(index.rebuild());
+
+        assertEquals(Set.of(task.getId()), index.search("photo"));
+        SearchIndexStatistics statistics = index.statistics();
+        assertEquals(1, statistics.getDocuments());
+        assertEquals(0, statistics.getRetiredDocuments());
+        assertNotNull(statistics.getBuiltAt());
+    }
+
+    @Test
+    @DisplayName("Should rebuild in the background once retired documents outgrow the live ones")
+    void testCompactsRetiredDocuments() throws InterruptedException {
+        ReflectionTestUtils.setField(index, "compactMinRetired", 3);
+        Task task = task("Water plants", null);
+        when(taskRepository.streamAll(any(Specification.class))).thenAnswer(invocation -> Stream.of(task));
+
+        for (int i = 0; i < 4; i++) {
+            index.index(task);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (index.statistics().getRetiredDocuments() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, index.statistics().getRetiredDocuments());
+        assertEquals(Set.of(task.getId()), index.search("plants"));
+    }
+}
@@ -1,21 +1,54 @@
 package com.taskmate.service.impl;
 
+import com.taskmate.cache.TaskCache;
+import com.taskmate.cache.TaskQueryCache;
+import com.taskmate.cache.TaskReadCoalescer;
 import com.taskmate.entity.Task;
+import com.taskmate.events.TaskEventBroadcaster;
+import com.taskmate.pojos.BulkCreateResponse;
+import com.taskmate.pojos.TaskCursor;
+import com.taskmate.pojos.TaskEvent;
+import com.taskmate.pojos.TaskField;
+import com.taskmate.pojos.TaskPatch;
+import com.taskmate.pojos.TaskSlice;
+import com.taskmate.pojos.TaskVersion;
+import com.taskmate.pojos.WritePrecondition;
+import com.taskmate.repository.DeletedTaskRepository;
+import com.taskmate.repository.TaskArchiveRepository;
 import com.taskmate.repository.TaskRepository;
+import com.taskmate.search.TaskSearchIndex;
+import com.taskmate.service.PreconditionFailedException;
+import com.taskmate.stats.TaskCounters;
+import com.taskmate.writebehind.TaskWriteBehindQueue;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +61,36 @@ class TaskServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private DeletedTaskRepository deletedTaskRepository;
+
+    @Mock
+    private TaskArchiveRepository taskArchiveRepository;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private TaskCounters taskCounters;
+
+    @Mock
+    private TaskWriteBehindQueue taskWriteBehindQueue;
+
+    @Mock
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Spy
+    private TaskCache taskCache = new TaskCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private TaskQueryCache taskQueryCache = new TaskQueryCache(100, Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+    @Spy
+    private TaskReadCoalescer taskReadCoalescer = new TaskReadCoalescer(true, Duration.ofSeconds(5));
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -52,6 +115,16 @@ class TaskServiceImplTest {
         assertEquals(testTask.getTitle(), createdTask.getTitle());
         assertEquals(testTask.getDescription(), createdTask.getDescription());
         verify(taskRepository, times(1)).save(testTask);
+        verify(taskEventBroadcaster).publish(TaskEvent.Type.CREATED, testTask.getId(), testTask);
+    }
+
+    @Test
+    @DisplayName("Should reject a task with a supplied id")
+    void shouldRejectSuppliedId() {
+        ReflectionTestUtils.setField(testTask, "id", testId);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTask(testTask));
+        verifyNoInteractions(taskRepository, taskWriteBehindQueue);
     }
 
     @Test
@@ -100,7 +173,7 @@ class TaskServiceImplTest {
         when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), eq(pageable))).thenReturn(taskPage);
 
         Page<Task> result = taskService.getTasks(
-                null, null, null, null, null, 0, 10, false, "createdAt", "desc"
+                null, null, null, null, null, 0, 10, false, "createdAt", "desc", null
         );
 
         assertNotNull(result);
@@ -118,7 +191,7 @@ class TaskServiceImplTest {
         when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), eq(pageable))).thenReturn(taskPage);
 
         Page<Task> result = taskService.getTasks(
-                null, null, null, null, null, 0, 5, false, "dueDate", "asc"
+                null, null, null, null, null, 0, 5, false, "dueDate", "asc", null
         );
 
         assertNotNull(result);
@@ -138,7 +211,7 @@ class TaskServiceImplTest {
                 null, null, true, 
                 LocalDateTime.now().minusDays(7), 
                 LocalDateTime.now().plusDays(7), 
-                1, 20, false, "title", "desc"
+                1, 20, false, "title", "desc", null
         );
 
         assertNotNull(result);
@@ -147,22 +220,172 @@ class TaskServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should return null for update task (not implemented)")
-    void shouldReturnNullForUpdateTask() {
-        Task result = taskService.updateTask(testId.toString(), testTask);
-        
-        assertNull(result);
-        // Verify no repository interaction since it's not implemented
+    @DisplayName("Should build the patched task from the cache when the version matches")
+    void shouldPatchFromCachedTask() {
+        testTask.prePersist();
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+        taskService.getTaskById(testId.toString());
+        when(taskRepository.patchTask(eq(testId), any(TaskPatch.class), any(WritePrecondition.class), any(LocalDateTime.class))).thenReturn(1);
+
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle("Patched");
+        patch.setDueDate(null);
+        patch.setVersion(0L);
+        Task result = taskService.updateTask(testId.toString(), patch);
+
+        assertEquals("Patched", result.getTitle());
+        assertEquals("Test Description", result.getDescription());
+        assertNull(result.getDueDate());
+        assertTrue(result.isCompleted());
+        assertEquals(1, result.getVersion());
+        // The shared cached instance is not modified, and nothing is read back
+        assertEquals("Test Task", testTask.getTitle());
+        verify(taskRepository, times(1)).findById(testId);
+    }
+
+    @Test
+    @DisplayName("Should read the task back after a patch without a matching cached version")
+    void shouldReadBackUncachedPatch() {
+        when(taskRepository.patchTask(eq(testId), any(TaskPatch.class), any(WritePrecondition.class), any(LocalDateTime.class))).thenReturn(1);
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+
+        TaskPatch patch = new TaskPatch();
+        patch.setCompleted(false);
+        Task result = taskService.updateTask(testId.toString(), patch);
+
+        assertSame(testTask, result);
+        verify(taskRepository).findById(testId);
+    }
+
+    @Test
+    @DisplayName("Should apply exact counter deltas when the cached task is the previous row")
+    void shouldCountPatchFromCachedTask() {
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+        taskService.getTaskById(testId.toString());
+        when(taskRepository.patchTask(eq(testId), any(TaskPatch.class), any(WritePrecondition.class), any(LocalDateTime.class))).thenReturn(1);
+
+        TaskPatch patch = new TaskPatch();
+        patch.setCompleted(false);
+        patch.setVersion(0L);
+        Task result = taskService.updateTask(testId.toString(), patch);
+
+        verify(taskCounters).changed(testTask, result);
+        verify(taskCounters, never()).markDrifted();
+    }
+
+    @Test
+    @DisplayName("Should leave counters to reconciliation when the previous row is unknown")
+    void shouldMarkCountersDriftedForUncachedPatch() {
+        when(taskRepository.patchTask(eq(testId), any(TaskPatch.class), any(WritePrecondition.class), any(LocalDateTime.class))).thenReturn(1);
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+
+        TaskPatch patch = new TaskPatch();
+        patch.setCompleted(false);
+        taskService.updateTask(testId.toString(), patch);
+
+        verify(taskCounters).markDrifted();
+        verify(taskCounters, never()).changed(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report a version conflict when the task exists at another version")
+    void shouldReportVersionConflict() {
+        when(taskRepository.patchTask(eq(testId), any(TaskPatch.class), any(WritePrecondition.class), any(LocalDateTime.class))).thenReturn(0);
+        when(taskRepository.findRowVersionById(testId)).thenReturn(Optional.of(rowVersion(4, LocalDateTime.now(), false)));
+
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle("Patched");
+        patch.setVersion(3L);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.updateTask(testId.toString(), patch));
+    }
+
+    @Test
+    @DisplayName("Should report a stale If-Match as a failed precondition, checked in the UPDATE")
+    void shouldReportFailedPrecondition() {
+        when(taskRepository.patchTask(eq(testId), any(TaskPatch.class), any(WritePrecondition.class), any(LocalDateTime.class))).thenReturn(0);
+        when(taskRepository.findRowVersionById(testId)).thenReturn(Optional.of(rowVersion(4, LocalDateTime.now(), false)));
+
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle("Patched");
+        WritePrecondition precondition = WritePrecondition.of("\"3\"", null);
+
+        assertThrows(PreconditionFailedException.class, () -> taskService.updateTask(testId.toString(), patch, precondition));
+        verify(taskRepository).patchTask(eq(testId), eq(patch), eq(precondition), any(LocalDateTime.class));
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should soft delete with the precondition in the UPDATE and report a stale one")
+    void shouldSoftDeleteWithPrecondition() {
+        when(taskRepository.updateDeletedFlag(any(org.springframework.data.jpa.domain.Specification.class), eq(true), any(LocalDateTime.class)))
+                .thenReturn(1, 0);
+        when(taskRepository.findRowVersionById(testId)).thenReturn(Optional.of(rowVersion(5, LocalDateTime.now(), false)));
+
+        assertTrue(taskService.softDeleteTask(testId.toString(), WritePrecondition.of("\"4\"", null)));
+        verify(taskEventBroadcaster).publish(TaskEvent.Type.SOFT_DELETED, testId, null);
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.softDeleteTask(testId.toString(), WritePrecondition.of("\"4\"", null)));
+    }
+
+    @Test
+    @DisplayName("Should return null when patching a missing task")
+    void shouldReturnNullForMissingTask() {
+        when(taskRepository.patchTask(eq(testId), any(TaskPatch.class), any(WritePrecondition.class), any(LocalDateTime.class))).thenReturn(0);
+
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle("Patched");
+
+        assertNull(taskService.updateTask(testId.toString(), patch));
+        assertNull(taskService.updateTask("invalid-uuid-string", patch));
+        verify(taskRepository, never()).findRowVersionById(any());
+    }
+
+    @Test
+    @DisplayName("Should reject empty patches and blank titles")
+    void shouldRejectInvalidPatches() {
+        TaskPatch blank = new TaskPatch();
+        blank.setTitle(" ");
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTask(testId.toString(), new TaskPatch()));
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTask(testId.toString(), blank));
         verifyNoInteractions(taskRepository);
     }
 
     @Test
-    @DisplayName("Should handle delete task gracefully (not implemented)")
-    void shouldHandleDeleteTaskGracefully() {
-        assertDoesNotThrow(() -> {
-            taskService.deleteTask(testId.toString());
-        });
-        // Verify no repository interaction since it's not implemented
+    @DisplayName("Should hard delete a task in one statement and evict it")
+    void shouldDeleteTask() {
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+        taskService.getTaskById(testId.toString());
+        when(taskRepository.deleteTaskById(testId)).thenReturn(1);
+
+        taskService.deleteTask(testId.toString());
+
+        assertNull(taskCache.getIfPresent(testId));
+        assertDoesNotThrow(() -> taskService.deleteTask("invalid-uuid-string"));
+        verify(taskRepository, times(1)).deleteTaskById(any());
+    }
+
+    @Test
+    @DisplayName("Should queue created tasks instead of inserting them in write-behind mode")
+    void shouldQueueTaskInWriteBehindMode() {
+        when(taskWriteBehindQueue.isEnabled()).thenReturn(true);
+        when(taskWriteBehindQueue.accept(testTask)).thenReturn(testTask);
+
+        Task accepted = taskService.createTask(testTask);
+
+        assertSame(testTask, accepted);
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("Should read a queued task before its INSERT has committed")
+    void shouldReadQueuedTask() {
+        when(taskWriteBehindQueue.getPending(testId)).thenReturn(testTask);
+
+        Task result = taskService.getTaskById(testId.toString());
+
+        assertSame(testTask, result);
         verifyNoInteractions(taskRepository);
     }
 
@@ -213,7 +436,7 @@ class TaskServiceImplTest {
         when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), eq(pageable))).thenReturn(emptyPage);
 
         Page<Task> result = taskService.getTasks(
-                null, null, null, null, null, 0, 10, false, "createdAt", "desc"
+                null, null, null, null, null, 0, 10, false, "createdAt", "desc", null
         );
 
         assertNotNull(result);
@@ -221,4 +444,582 @@ class TaskServiceImplTest {
         assertEquals(0, result.getTotalElements());
         verify(taskRepository, times(1)).findAll(any(org.springframework.data.jpa.domain.Specification.class), eq(pageable));
     }
+
+    @Test
+    @DisplayName("Should return next cursor from the last row in cursor mode")
+    void shouldReturnNextCursorInCursorMode() {
+        testTask.prePersist();
+        ReflectionTestUtils.setField(testTask, "id", testId);
+        Window<Task> window = Window.from(Arrays.asList(testTask), index -> ScrollPosition.keyset(), true);
+
+        when(taskRepository.findBy(any(org.springframework.data.jpa.domain.Specification.class), any())).thenReturn(window);
+
+        TaskSlice result = taskService.getTasksByCursor(
+                null, null, null, null, null, "", 1, false, "createdAt", "desc", null
+        );
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        TaskCursor cursor = TaskCursor.decode(result.getNextCursor());
+        assertEquals(testId, cursor.getId());
+        assertEquals(testTask.getCreatedAt(), cursor.getSortValue());
+        assertEquals(Sort.Direction.DESC, cursor.getDirection());
+        verify(taskRepository, never()).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should omit next cursor on the last slice")
+    void shouldOmitNextCursorOnLastSlice() {
+        Window<Task> window = Window.from(Arrays.asList(), index -> ScrollPosition.keyset(), false);
+
+        when(taskRepository.findBy(any(org.springframework.data.jpa.domain.Specification.class), any())).thenReturn(window);
+
+        TaskSlice result = taskService.getTasksByCursor(
+                null, null, null, null, null, "", 10, false, "createdAt", "asc", null
+        );
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject sort fields that are not index-backed in cursor mode")
+    void shouldRejectUnsupportedCursorSortField() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByCursor(
+                null, null, null, null, null, "", 10, false, "title", "desc", null
+        ));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different sort direction")
+    void shouldRejectCursorForDifferentDirection() {
+        testTask.prePersist();
+        ReflectionTestUtils.setField(testTask, "id", testId);
+        String cursor = TaskCursor.after(testTask, com.taskmate.pojos.KeysetSortField.CREATED_AT, Sort.Direction.ASC).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByCursor(
+                null, null, null, null, null, cursor, 10, false, "createdAt", "desc", null
+        ));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Should stream every exported task to the consumer")
+    void shouldStreamExportedTasksToConsumer() {
+        Task task2 = new Task("Task 2", "Description 2", LocalDateTime.now().plusDays(2));
+        when(taskRepository.streamAll(any(org.springframework.data.jpa.domain.Specification.class)))
+                .thenReturn(Stream.of(testTask, task2));
+
+        List<Task> exported = new ArrayList<>();
+        long count = taskService.exportTasks(null, null, null, null, null, false, exported::add);
+
+        assertEquals(2, count);
+        assertEquals(Arrays.asList(testTask, task2), exported);
+        verify(taskRepository, never()).findAllActiveTasks();
+    }
+
+    @Test
+    @DisplayName("Should insert valid tasks in one batch and report invalid ones per item")
+    @SuppressWarnings("unchecked")
+    void shouldBulkCreateValidTasksAndReportInvalidOnes() {
+        Task valid1 = new Task("Task 1", "Description 1", null);
+        Task invalid = new Task("", "Description 2", null);
+        Task valid2 = new Task("Task 3", "Description 3", null);
+        ConstraintViolation<Task> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Title is required");
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+
+        BulkCreateResponse response = taskService.createTasks(Arrays.asList(valid1, invalid, valid2));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals(3, response.getResults().size());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertFalse(response.getResults().get(1).isSuccess());
+        assertEquals(List.of("Title is required"), response.getResults().get(1).getErrors());
+        assertTrue(response.getResults().get(2).isSuccess());
+        verify(taskRepository, times(1)).insertBatch(Arrays.asList(valid1, valid2));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("Should split bulk creation into chunks")
+    void shouldSplitBulkCreationIntoChunks() {
+        ReflectionTestUtils.setField(taskService, "bulkChunkSize", 2);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new Task("Task " + i, null, null));
+        }
+
+        BulkCreateResponse response = taskService.createTasks(tasks);
+
+        assertEquals(5, response.getCreated());
+        verify(taskRepository, times(3)).insertBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("Should soft delete a task with a single update")
+    void shouldSoftDeleteTaskWithSingleUpdate() {
+        when(taskRepository.updateDeletedFlag(eq(List.of(testId)), eq(true), any(LocalDateTime.class))).thenReturn(1);
+
+        assertTrue(taskService.softDeleteTask(testId.toString()));
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("Should publish one change event per soft deleted task")
+    void shouldPublishSoftDeleteEvent() {
+        when(taskRepository.updateDeletedFlag(eq(List.of(testId)), eq(true), any(LocalDateTime.class))).thenReturn(1);
+
+        taskService.softDeleteTask(testId.toString());
+
+        verify(taskEventBroadcaster).publish(TaskEvent.Type.SOFT_DELETED, testId, null);
+    }
+
+    @Test
+    @DisplayName("Should publish a list change event when the soft deleted tasks are unknown")
+    void shouldPublishChangedEventOnFilteredSoftDelete() {
+        when(taskRepository.updateDeletedFlag(any(org.springframework.data.jpa.domain.Specification.class), eq(true), any(LocalDateTime.class)))
+                .thenReturn(3);
+
+        taskService.softDeleteTasks(null, null, true, null, null);
+
+        verify(taskEventBroadcaster).publish(TaskEvent.Type.CHANGED, null, null);
+    }
+
+    @Test
+    @DisplayName("Should report missing or already deleted task on soft delete")
+    void shouldReportMissingTaskOnSoftDelete() {
+        when(taskRepository.updateDeletedFlag(eq(List.of(testId)), eq(true), any(LocalDateTime.class))).thenReturn(0);
+
+        assertFalse(taskService.softDeleteTask(testId.toString()));
+    }
+
+    @Test
+    @DisplayName("Should bulk soft delete ids in chunks and skip malformed ids")
+    void shouldBulkSoftDeleteIdsInChunks() {
+        ReflectionTestUtils.setField(taskService, "bulkChunkSize", 2);
+        List<String> ids = Arrays.asList(
+                UUID.randomUUID().toString(), "not-a-uuid", UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        when(taskRepository.updateDeletedFlag(anyCollection(), eq(true), any(LocalDateTime.class))).thenReturn(2, 1);
+
+        int affected = taskService.softDeleteTasks(ids);
+
+        assertEquals(3, affected);
+        verify(taskRepository, times(2)).updateDeletedFlag(anyCollection(), eq(true), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should restore tasks matching a filter with one update")
+    void shouldRestoreTasksMatchingFilter() {
+        when(taskRepository.updateDeletedFlag(any(org.springframework.data.jpa.domain.Specification.class), eq(false), any(LocalDateTime.class)))
+                .thenReturn(4);
+
+        int affected = taskService.restoreTasks(null, null, null, null, LocalDateTime.now());
+
+        assertEquals(4, affected);
+        verify(taskRepository, times(1)).updateDeletedFlag(any(org.springframework.data.jpa.domain.Specification.class), eq(false), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should page through archived matches by id when restoring by filter")
+    void shouldPageArchivedMatchesOnFilteredRestore() {
+        ReflectionTestUtils.setField(taskService, "bulkChunkSize", 2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(taskArchiveRepository.findIds(any(org.springframework.data.jpa.domain.Specification.class), isNull(), eq(2)))
+                .thenReturn(List.of(first, second));
+        when(taskArchiveRepository.findIds(any(org.springframework.data.jpa.domain.Specification.class), eq(second), eq(2)))
+                .thenReturn(List.of(third));
+        when(taskArchiveRepository.restore(anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> ((java.util.Collection<?>) invocation.getArgument(0)).size());
+
+        assertEquals(3, taskService.restoreTasks(null, null, null, null, LocalDateTime.now()));
+        verify(taskArchiveRepository).restore(eq(List.of(first, second)), any(LocalDateTime.class));
+        verify(taskArchiveRepository).restore(eq(List.of(third)), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should restore tasks that have already been archived")
+    void shouldRestoreArchivedTasks() {
+        when(taskRepository.updateDeletedFlag(anyCollection(), eq(false), any(LocalDateTime.class))).thenReturn(0);
+        when(taskArchiveRepository.restore(anyCollection(), any(LocalDateTime.class))).thenReturn(1);
+
+        int affected = taskService.restoreTasks(List.of(testId.toString()));
+
+        assertEquals(1, affected);
+        verify(taskCounters).deletedFlagChanged(1, false);
+        verify(taskEventBroadcaster).publish(TaskEvent.Type.RESTORED, testId, null);
+    }
+
+    @Test
+    @DisplayName("Should list deleted tasks across the hot table and the archive")
+    void shouldListDeletedTasksFromArchiveView() {
+        when(deletedTaskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        Page<Task> result = taskService.getTasks(null, null, null, null, null, 0, 10, true, "createdAt", "asc", null);
+
+        assertTrue(result.isEmpty());
+        verify(taskRepository, never()).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads of a task from the cache")
+    void shouldServeRepeatedReadsFromCache() {
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+
+        Task first = taskService.getTaskById(testId.toString());
+        Task second = taskService.getTaskById(testId.toString());
+
+        assertSame(first, second);
+        verify(taskRepository, times(1)).findById(testId);
+        assertEquals(1, taskCache.statistics().getHitCount());
+        assertEquals(1, taskCache.statistics().getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should not cache tasks that were not found")
+    void shouldNotCacheMissingTasks() {
+        when(taskRepository.findById(testId)).thenReturn(Optional.empty(), Optional.of(testTask));
+
+        assertNull(taskService.getTaskById(testId.toString()));
+        assertNotNull(taskService.getTaskById(testId.toString()));
+        verify(taskRepository, times(2)).findById(testId);
+    }
+
+    @Test
+    @DisplayName("Should run one lookup for concurrent reads of the same uncached task")
+    void shouldCoalesceConcurrentTaskReads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskRepository.findById(testId)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(testTask);
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Task>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(executor.submit(() -> taskService.getTaskById(testId.toString())));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (taskReadCoalescer.taskStatistics().getCollapsedCount() < 7 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<Task> read : reads) {
+                assertSame(testTask, read.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(taskRepository, times(1)).findById(testId);
+        assertEquals(1, taskReadCoalescer.taskStatistics().getExecutedCount());
+        assertEquals(7, taskReadCoalescer.taskStatistics().getCollapsedCount());
+    }
+
+    @Test
+    @DisplayName("Should reload a cached task after it is soft deleted")
+    void shouldInvalidateCachedTaskOnSoftDelete() {
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+        when(taskRepository.updateDeletedFlag(eq(List.of(testId)), eq(true), any(LocalDateTime.class))).thenReturn(1);
+
+        taskService.getTaskById(testId.toString());
+        taskService.softDeleteTask(testId.toString());
+        taskService.getTaskById(testId.toString());
+
+        verify(taskRepository, times(2)).findById(testId);
+        verify(taskCache).invalidateAll(List.of(testId));
+    }
+
+    @Test
+    @DisplayName("Should drop all cached tasks after a filter based soft delete")
+    void shouldInvalidateAllCachedTasksOnFilteredSoftDelete() {
+        when(taskRepository.updateDeletedFlag(any(org.springframework.data.jpa.domain.Specification.class), eq(true), any(LocalDateTime.class)))
+                .thenReturn(3);
+
+        taskService.softDeleteTasks(null, null, true, null, null);
+
+        verify(taskCache).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Should serve identical list queries from the query cache")
+    void shouldServeIdenticalListQueriesFromCache() {
+        Page<Task> taskPage = new PageImpl<>(Arrays.asList(testTask));
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class))).thenReturn(taskPage);
+
+        Page<Task> first = taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", null);
+        Page<Task> second = taskService.getTasks(null, null, null, null, null, 0, 10, null, "createdAt", "DESC", null);
+
+        assertSame(first, second);
+        verify(taskRepository, times(1)).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should read a page without its count apart from the counted page")
+    void shouldReadPageWithoutTotal() {
+        Slice<Task> slice = new SliceImpl<>(Arrays.asList(testTask), PageRequest.of(0, 10), true);
+        when(taskRepository.findSlice(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class))).thenReturn(slice);
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testTask)));
+
+        Slice<Task> first = taskService.getTasksWithoutTotal(null, null, null, null, null, 0, 10, false, "createdAt", "desc", null);
+        Slice<Task> second = taskService.getTasksWithoutTotal(null, null, null, null, null, 0, 10, false, "createdAt", "desc", null);
+        Page<Task> counted = taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", null);
+
+        assertSame(slice, first);
+        assertSame(first, second);
+        assertNotSame(first, counted);
+        verify(taskRepository, times(1)).findSlice(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+        verify(taskRepository, times(1)).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should consult the search index only on a query cache miss")
+    void shouldSearchOnlyOnQueryCacheMiss() {
+        Page<Task> taskPage = new PageImpl<>(Arrays.asList(testTask));
+        when(taskSearchIndex.search(anyString())).thenReturn(Set.of(testId));
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class))).thenReturn(taskPage);
+
+        Page<Task> first = taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", "Report draft");
+        // Same terms, different spelling
+        Page<Task> second = taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", "draft, REPORT draft");
+
+        assertSame(first, second);
+        verify(taskSearchIndex, times(1)).search("Report draft");
+        verify(taskSearchIndex, never()).search("draft, REPORT draft");
+    }
+
+    @Test
+    @DisplayName("Should not consult the search index without search text")
+    void shouldIgnoreBlankSearchText() {
+        Page<Task> taskPage = new PageImpl<>(Arrays.asList(testTask));
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class))).thenReturn(taskPage);
+
+        taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", " ");
+
+        verifyNoInteractions(taskSearchIndex);
+    }
+
+    @Test
+    @DisplayName("Should page a search matching more tasks than one IN list takes a batch at a time")
+    void shouldPageLargeSearchInBatches() {
+        ReflectionTestUtils.setField(taskService, "searchBatchSize", 1);
+        UUID older = UUID.randomUUID();
+        UUID newer = UUID.randomUUID();
+        when(taskSearchIndex.search(anyString())).thenReturn(Set.of(older, newer, UUID.randomUUID()));
+        // The third match does not pass the filters
+        when(taskRepository.findSortValues(any(org.springframework.data.jpa.domain.Specification.class), eq("createdAt")))
+                .thenReturn(Map.of(older, LocalDateTime.of(2025, 1, 1, 0, 0), newer, LocalDateTime.of(2025, 2, 1, 0, 0)),
+                        Map.of(), Map.of());
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testTask)));
+
+        Page<Task> result = taskService.getTasks(null, null, null, null, null, 0, 1, false, "createdAt", "desc", "report");
+
+        assertEquals(List.of(testTask), result.getContent());
+        assertEquals(2, result.getTotalElements());
+        verify(taskRepository, times(3)).findSortValues(any(org.springframework.data.jpa.domain.Specification.class), eq("createdAt"));
+        verify(taskRepository).findAll(any(org.springframework.data.jpa.domain.Specification.class),
+                eq(PageRequest.of(0, 1, Sort.by("createdAt").descending())));
+    }
+
+    @Test
+    @DisplayName("Should keep the search index in step with task writes")
+    void shouldIndexTaskWrites() {
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        when(taskRepository.deleteTaskById(testId)).thenReturn(1);
+
+        taskService.createTask(testTask);
+        taskService.deleteTask(testId.toString());
+
+        verify(taskSearchIndex).index(testTask);
+        verify(taskSearchIndex).remove(testId);
+    }
+
+    @Test
+    @DisplayName("Should reload list queries after a write")
+    void shouldReloadListQueriesAfterWrite() {
+        Page<Task> taskPage = new PageImpl<>(Arrays.asList(testTask));
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class))).thenReturn(taskPage);
+
+        taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", null);
+        taskService.createTask(new Task("New Task", null, null));
+        taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", null);
+
+        verify(taskQueryCache).bumpVersion();
+        verify(taskRepository, times(2)).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should cache overdue queries within a time bucket")
+    void shouldCacheOverdueQueriesWithinBucket() {
+        Page<Task> taskPage = new PageImpl<>(Arrays.asList(testTask));
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class))).thenReturn(taskPage);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 45);
+
+        assertEquals(LocalDateTime.of(2025, 1, 1, 12, 0, 30), taskQueryCache.overdueBucket(now));
+
+        taskService.getTasks(null, null, true, null, null, 0, 10, false, "dueDate", "asc", null);
+        taskService.getTasks(null, null, true, null, null, 0, 10, false, "dueDate", "asc", null);
+
+        // The two calls may straddle a bucket boundary, in which case both go to the repository
+        verify(taskRepository, atMost(2)).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+        verify(taskQueryCache, times(2)).overdueBucket(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should bypass the query cache for overdue queries when bucketing is disabled")
+    void shouldBypassCacheForOverdueWhenBucketingDisabled() {
+        TaskQueryCache uncachedOverdue = new TaskQueryCache(100, Duration.ofMinutes(1), Duration.ZERO);
+        TaskServiceImpl service = new TaskServiceImpl(taskRepository, deletedTaskRepository, taskArchiveRepository,
+                validator, taskCache, uncachedOverdue, taskReadCoalescer,
+                taskSearchIndex, taskCounters, taskWriteBehindQueue, taskEventBroadcaster);
+        Page<Task> taskPage = new PageImpl<>(Arrays.asList(testTask));
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class))).thenReturn(taskPage);
+
+        service.getTasks(null, null, true, null, null, 0, 10, false, "dueDate", "asc", null);
+        service.getTasks(null, null, true, null, null, 0, 10, false, "dueDate", "asc", null);
+
+        verify(taskRepository, times(2)).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+        assertEquals(0, uncachedOverdue.statistics().getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should select only the summary columns for fields=summary")
+    void shouldSelectSummaryColumns() {
+        Map<String, Object> row = Map.of("id", testId, "title", "Test Task");
+        Page<Map<String, Object>> rows = new PageImpl<>(Arrays.asList(row));
+        when(taskRepository.findFields(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class), eq(TaskField.SUMMARY)))
+                .thenReturn(rows);
+
+        Page<Map<String, Object>> result = taskService.getTaskFields(
+                null, null, null, null, null, 0, 10, false, "createdAt", "desc", "summary", null
+        );
+
+        assertEquals(1, result.getContent().size());
+        verify(taskRepository, never()).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should cache sparse fieldsets separately from full tasks")
+    void shouldCacheSparseFieldsetsSeparately() {
+        Page<Map<String, Object>> rows = new PageImpl<>(Arrays.asList(Map.of("title", "Test Task")));
+        when(taskRepository.findFields(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class), eq(Set.of(TaskField.TITLE))))
+                .thenReturn(rows);
+        when(taskRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testTask)));
+
+        taskService.getTaskFields(null, null, null, null, null, 0, 10, false, "createdAt", "desc", "title", null);
+        taskService.getTaskFields(null, null, null, null, null, 0, 10, false, "createdAt", "desc", " title ", null);
+        Page<Task> tasks = taskService.getTasks(null, null, null, null, null, 0, 10, false, "createdAt", "desc", null);
+
+        assertEquals(testTask, tasks.getContent().get(0));
+        verify(taskRepository, times(1)).findFields(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class), anySet());
+        verify(taskRepository, times(1)).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields")
+    void shouldRejectUnknownFields() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTaskFields(
+                null, null, null, null, null, 0, 10, false, "createdAt", "desc", "title,secret", null
+        ));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Should version a cached task without querying the repository")
+    void shouldVersionCachedTaskFromCache() {
+        testTask.prePersist();
+        when(taskRepository.findById(testId)).thenReturn(Optional.of(testTask));
+        taskService.getTaskById(testId.toString());
+
+        TaskVersion version = taskService.getTaskVersion(testId.toString());
+
+        assertNotNull(version);
+        assertEquals(testTask.getUpdatedAt(), version.getLastModified());
+        verify(taskRepository, never()).findRowVersionById(any());
+    }
+
+    @Test
+    @DisplayName("Should version an uncached task from its version and updatedAt columns")
+    void shouldVersionUncachedTaskFromColumns() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(taskRepository.findRowVersionById(testId)).thenReturn(Optional.of(rowVersion(7, updatedAt, false)));
+
+        TaskVersion version = taskService.getTaskVersion(testId.toString());
+
+        assertEquals("\"7\"", version.getETag());
+        assertEquals(updatedAt, version.getLastModified());
+        verify(taskRepository, never()).findById(any());
+        assertNull(taskService.getTaskVersion("not-a-uuid"));
+    }
+
+    @Test
+    @DisplayName("Should version an archived task from the archive's columns")
+    void shouldVersionArchivedTask() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(taskRepository.findRowVersionById(testId)).thenReturn(Optional.empty());
+        when(taskArchiveRepository.findRowVersionById(testId)).thenReturn(Optional.of(rowVersion(3, updatedAt, true)));
+
+        TaskVersion version = taskService.getTaskVersion(testId.toString());
+
+        assertEquals("\"3\"", version.getETag());
+        assertEquals(updatedAt, version.getLastModified());
+        verify(taskArchiveRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should scope list versions by filter and representation")
+    void shouldScopeListVersions() {
+        when(taskRepository.findVersion(any(org.springframework.data.jpa.domain.Specification.class), any()))
+                .thenAnswer(invocation -> TaskVersion.of(invocation.getArgument(1), null, 0));
+        when(deletedTaskRepository.findVersion(any(org.springframework.data.jpa.domain.Specification.class), any()))
+                .thenAnswer(invocation -> TaskVersion.of(invocation.getArgument(1), null, 0));
+
+        String first = taskService.getTasksVersion(null, null, null, null, null, false, "page=0", null).getETag();
+
+        assertEquals(first, taskService.getTasksVersion(null, null, null, null, null, null, "page=0", null).getETag());
+        assertNotEquals(first, taskService.getTasksVersion(null, null, null, null, null, false, "page=1", null).getETag());
+        assertNotEquals(first, taskService.getTasksVersion(null, null, null, null, null, true, "page=0", null).getETag());
+    }
+
+    @Test
+    @DisplayName("Should serve a list version from the cache until the next write")
+    void shouldCacheListVersions() {
+        when(taskRepository.findVersion(any(org.springframework.data.jpa.domain.Specification.class), any()))
+                .thenAnswer(invocation -> TaskVersion.of(invocation.getArgument(1), null, 0));
+
+        taskService.getTasksVersion(null, null, null, null, null, false, "page=0", null);
+        taskService.getTasksVersion(null, null, null, null, null, false, "page=0", null);
+        verify(taskRepository, times(1)).findVersion(any(org.springframework.data.jpa.domain.Specification.class), any());
+
+        taskQueryCache.bumpVersion();
+        taskService.getTasksVersion(null, null, null, null, null, false, "page=0", null);
+        verify(taskRepository, times(2)).findVersion(any(org.springframework.data.jpa.domain.Specification.class), any());
+    }
+
+    private static TaskRepository.RowVersion rowVersion(long version, LocalDateTime updatedAt, boolean deleted) {
+        return new TaskRepository.RowVersion() {
+            @Override
+            public long getVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+
+            @Override
+            public boolean isDeleted() {
+                return deleted;
+            }
+        };
+    }
 }
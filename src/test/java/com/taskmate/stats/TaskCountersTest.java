@@ -0,0 +1,152 @@
+package com.taskmate.stats;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskStatistics;
+import com.taskmate.repository.TaskArchiveRepository;
+import com.taskmate.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskCountersTest {
+
+    private TaskRepository taskRepository;
+    private TaskArchiveRepository taskArchiveRepository;
+    private TaskCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        taskArchiveRepository = mock(TaskArchiveRepository.class);
+        counters = new TaskCounters(taskRepository, taskArchiveRepository);
+    }
+
+    private static Task task(LocalDateTime dueDate, boolean completed, boolean deleted) {
+        Task task = new Task("Task", null, dueDate);
+        if (completed) {
+            task.markCompleted();
+        }
+        if (deleted) {
+            task.softDelete();
+        }
+        return task;
+    }
+
+    @Test
+    @DisplayName("Should count created tasks by state")
+    void testCountsCreatedTasks() {
+        counters.added(List.of(
+                task(LocalDateTime.now().minusDays(1), false, false),
+                task(LocalDateTime.now().minusDays(1), true, false),
+                task(LocalDateTime.now().plusDays(1), false, false),
+                task(null, false, true)));
+
+        TaskStatistics statistics = counters.snapshot();
+
+        assertEquals(3, statistics.getTotal());
+        assertEquals(1, statistics.getCompleted());
+        assertEquals(1, statistics.getOverdue());
+        assertEquals(1, statistics.getDeleted());
+    }
+
+    @Test
+    @DisplayName("Should fold due buckets into overdue once their minute has passed")
+    void testDueBucketExpires() {
+        counters.changed(null, task(LocalDateTime.now().plusMinutes(5), false, false));
+        assertEquals(0, counters.snapshot().getOverdue());
+
+        // Move the bucket into the past, as if minutes had gone by since it was added
+        Object current = ReflectionTestUtils.getField(counters, "counters");
+        ReflectionTestUtils.setField(current, "expiredUntil", LocalDateTime.now().minusMinutes(10));
+        @SuppressWarnings("unchecked")
+        Map<LocalDateTime, LongAdder> buckets = (Map<LocalDateTime, LongAdder>) ReflectionTestUtils.getField(current, "dueBuckets");
+        LongAdder bucket = buckets.values().iterator().next();
+        buckets.clear();
+        buckets.put(LocalDateTime.now().minusMinutes(2), bucket);
+
+        assertEquals(1, counters.snapshot().getOverdue());
+        assertTrue(buckets.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should move a task between counters when it changes")
+    void testChangeMovesCounts() {
+        Task open = task(LocalDateTime.now().minusDays(1), false, false);
+        counters.changed(null, open);
+
+        Task completed = task(open.getDueDate(), true, false);
+        counters.changed(open, completed);
+
+        TaskStatistics statistics = counters.snapshot();
+        assertEquals(1, statistics.getTotal());
+        assertEquals(1, statistics.getCompleted());
+        assertEquals(0, statistics.getOverdue());
+
+        counters.changed(completed, null);
+        assertEquals(0, counters.snapshot().getTotal());
+    }
+
+    @Test
+    @DisplayName("Should move soft deleted rows to the deleted count and mark the counters drifted")
+    void testDeletedFlagChange() {
+        counters.added(List.of(task(null, false, false), task(null, false, false)));
+
+        counters.deletedFlagChanged(2, true);
+
+        TaskStatistics statistics = counters.snapshot();
+        assertEquals(0, statistics.getTotal());
+        assertEquals(2, statistics.getDeleted());
+        assertTrue(((AtomicBoolean) ReflectionTestUtils.getField(counters, "drifted")).get());
+    }
+
+    @Test
+    @DisplayName("Should replace the counters with a database recount and report the correction")
+    void testReconcile() {
+        counters.changed(null, task(null, false, false));
+        when(taskRepository.countByDeleted(false)).thenReturn(5L);
+        when(taskRepository.countByDeleted(true)).thenReturn(1L);
+        when(taskArchiveRepository.count()).thenReturn(1L);
+        when(taskRepository.countByDeletedFalseAndCompletedTrue()).thenReturn(1L);
+        when(taskRepository.countOpenTasksByDueDate()).thenReturn(List.of(
+                new Object[]{LocalDateTime.now().minusDays(2), 3L},
+                new Object[]{LocalDateTime.now().plusDays(2), 1L}));
+
+        counters.reconcile();
+
+        TaskStatistics statistics = counters.snapshot();
+        assertEquals(5, statistics.getTotal());
+        assertEquals(1, statistics.getCompleted());
+        assertEquals(3, statistics.getOverdue());
+        assertEquals(2, statistics.getDeleted());
+        assertNotNull(statistics.getReconciledAt());
+        assertEquals(4 + 1 + 3 + 2, statistics.getLastCorrection());
+    }
+
+    @Test
+    @DisplayName("Should stay drifted when a delta lands while the recount runs")
+    void testDeltaDuringReconcileMarksDrifted() {
+        when(taskRepository.countByDeleted(false)).thenAnswer(invocation -> {
+            counters.changed(null, task(null, false, false));
+            return 0L;
+        });
+
+        counters.reconcile();
+        assertTrue(((AtomicBoolean) ReflectionTestUtils.getField(counters, "drifted")).get());
+
+        when(taskRepository.countByDeleted(false)).thenReturn(1L);
+        counters.reconcileIfDrifted();
+        assertFalse(((AtomicBoolean) ReflectionTestUtils.getField(counters, "drifted")).get());
+        assertEquals(1, counters.snapshot().getTotal());
+    }
+}
@@ -0,0 +1,129 @@
+package com.taskmate.web;
+
+import com.taskmate.entity.Task;
+import com.taskmate.pojos.TaskSlice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskListWriterTest {
+
+    private ObjectMapper objectMapper;
+    private TaskListWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        writer = new TaskListWriter(objectMapper, true, DataSize.ofKilobytes(2));
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task("Task " + i, "x".repeat(200), null));
+        }
+        return tasks;
+    }
+
+    @Test
+    @DisplayName("Should write an offset page as the compact envelope, uncompressed below the threshold")
+    void testSmallPageEnvelope() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writePage(new PageImpl<>(tasks(2), PageRequest.of(1, 3), 7), "gzip", response);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(2, body.get("content").size());
+        assertEquals("Task 0", body.get("content").get(0).get("title").asString());
+        assertEquals(2, body.get("count").asInt());
+        assertTrue(body.get("hasNext").asBoolean());
+        assertEquals(1, body.get("page").asInt());
+        assertEquals(3, body.get("size").asInt());
+        assertEquals(2, body.get("nextPage").asInt());
+        assertEquals(7, body.get("totalElements").asLong());
+        assertEquals(3, body.get("totalPages").asInt());
+        assertNull(body.get("pageable"));
+    }
+
+    @Test
+    @DisplayName("Should leave the totals out of a page read without its count")
+    void testPageWithoutTotal() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writePage(new SliceImpl<>(tasks(2), PageRequest.of(0, 2), true), null, response);
+
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(2, body.get("count").asInt());
+        assertTrue(body.get("hasNext").asBoolean());
+        assertEquals(1, body.get("nextPage").asInt());
+        assertNull(body.get("totalElements"));
+        assertNull(body.get("totalPages"));
+    }
+
+    @Test
+    @DisplayName("Should gzip a page above the threshold and weaken its ETag")
+    void testLargePageIsGzipped() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setHeader("ETag", "\"abc\"");
+
+        writer.writePage(new PageImpl<>(tasks(50), PageRequest.of(0, 50), 50), "deflate, gzip;q=0.8", response);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("W/\"abc\"", response.getHeader("ETag"));
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        assertTrue(response.getContentAsByteArray().length < json.length);
+        JsonNode body = objectMapper.readTree(json);
+        assertEquals(50, body.get("content").size());
+        assertFalse(body.get("hasNext").asBoolean());
+        assertTrue(body.get("nextPage").isNull());
+    }
+
+    @Test
+    @DisplayName("Should deflate when gzip is refused and write cursor pages without totals")
+    void testDeflatedSlice() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writeSlice(new TaskSlice(tasks(50), "next"), "gzip;q=0, deflate", response);
+
+        assertEquals("deflate", response.getHeader("Content-Encoding"));
+        byte[] json = new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        JsonNode body = objectMapper.readTree(json);
+        assertEquals(50, body.get("count").asInt());
+        assertEquals("next", body.get("nextCursor").asString());
+        assertNull(body.get("totalElements"));
+    }
+
+    @Test
+    @DisplayName("Should only compress when the client accepts gzip or deflate")
+    void testNegotiate() throws Exception {
+        assertNull(TaskListWriter.negotiate(null));
+        assertNull(TaskListWriter.negotiate("br, identity"));
+        assertNull(TaskListWriter.negotiate("gzip;q=0, deflate;q=0.0"));
+        assertEquals("gzip", TaskListWriter.negotiate("*"));
+        assertEquals("gzip", TaskListWriter.negotiate("deflate, GZIP"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.writePage(new PageImpl<>(tasks(50)), null, response);
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(50, objectMapper.readTree(response.getContentAsByteArray()).get("content").size());
+    }
+}
@@ -0,0 +1,219 @@
+package com.taskmate.writebehind;
+
+import com.taskmate.entity.Task;
+import com.taskmate.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskWriteBehindQueueTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final List<TaskWriteBehindQueue> started = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (TaskWriteBehindQueue queue : started) {
+            queue.destroy();
+        }
+    }
+
+    private TaskWriteBehindQueue start(TaskRepository repository, int capacity, Duration flushInterval) {
+        return start(repository, capacity, 100, flushInterval, 10000);
+    }
+
+    private TaskWriteBehindQueue start(TaskRepository repository, int capacity, int batchSize, Duration flushInterval,
+                                       int segmentSize) {
+        TaskWriteBehindQueue queue = create(repository, capacity, batchSize, flushInterval, segmentSize);
+        queue.afterSingletonsInstantiated();
+        started.add(queue);
+        return queue;
+    }
+
+    private TaskWriteBehindQueue create(TaskRepository repository, int capacity, int batchSize, Duration flushInterval,
+                                        int segmentSize) {
+        return new TaskWriteBehindQueue(repository, objectMapper, true, capacity, batchSize, flushInterval,
+                directory.resolve("tasks.journal"), segmentSize, directory.resolve("tasks.rejected"));
+    }
+
+    @Test
+    @DisplayName("Should serve accepted tasks by id and insert them in one group commit")
+    void testGroupCommit() throws Exception {
+        TaskRepository repository = mock(TaskRepository.class);
+        List<List<Task>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch inserted = new CountDownLatch(1);
+        when(repository.insertBatch(anyList())).thenAnswer(call -> {
+            batches.add(call.getArgument(0));
+            inserted.countDown();
+            return call.getArgument(0);
+        });
+        TaskWriteBehindQueue queue = start(repository, 100, Duration.ofSeconds(1));
+
+        List<Task> accepted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = queue.accept(new Task("Queued " + i, null, null));
+            assertNotNull(task.getId());
+            assertNotNull(task.getCreatedAt());
+            assertSame(task, queue.getPending(task.getId()));
+            accepted.add(task);
+        }
+
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batches.size());
+        assertEquals(accepted, batches.get(0));
+        // The batch is released and the journal emptied right after the commit
+        Path journal = directory.resolve("tasks.journal");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((queue.size() > 0 || Files.size(journal) > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(queue.getPending(accepted.get(0).getId()));
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    @DisplayName("Should refuse tasks beyond its capacity")
+    void testBackpressure() throws Exception {
+        TaskRepository repository = mock(TaskRepository.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.insertBatch(anyList())).thenAnswer(call -> {
+            release.await();
+            return call.getArgument(0);
+        });
+        TaskWriteBehindQueue queue = start(repository, 2, Duration.ZERO);
+
+        queue.accept(new Task("First", null, null));
+        queue.accept(new Task("Second", null, null));
+
+        assertThrows(WriteQueueFullException.class, () -> queue.accept(new Task("Third", null, null)));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should insert journaled tasks that never reached the database on restart")
+    void testRecoversJournaledTasks() throws Exception {
+        // First run: the INSERT never completes, as if the process died
+        TaskRepository stuck = mock(TaskRepository.class);
+        CountDownLatch never = new CountDownLatch(1);
+        when(stuck.insertBatch(anyList())).thenAnswer(call -> {
+            never.await();
+            return call.getArgument(0);
+        });
+        TaskWriteBehindQueue crashed = create(stuck, 10, 100, Duration.ZERO, 10000);
+        crashed.afterSingletonsInstantiated();
+        Task lost = crashed.accept(new Task("Survives a crash", "journaled", null));
+        UUID id = lost.getId();
+
+        TaskRepository repository = mock(TaskRepository.class);
+        List<Task> recovered = new ArrayList<>();
+        when(repository.insertBatch(anyList())).thenAnswer(call -> {
+            recovered.addAll(call.getArgument(0));
+            return call.getArgument(0);
+        });
+        start(repository, 10, Duration.ZERO);
+
+        assertEquals(1, recovered.size());
+        assertEquals(id, recovered.get(0).getId());
+        assertEquals("Survives a crash", recovered.get(0).getTitle());
+        assertEquals(lost.getCreatedAt(), recovered.get(0).getCreatedAt());
+        never.countDown();
+    }
+
+    @Test
+    @DisplayName("Should start when a journaled task is rejected on recovery, moving it to the dead letter file")
+    void testRecoveryDeadLettersRejectedTasks() throws Exception {
+        TaskRepository stuck = mock(TaskRepository.class);
+        CountDownLatch never = new CountDownLatch(1);
+        when(stuck.insertBatch(anyList())).thenAnswer(call -> {
+            never.await();
+            return call.getArgument(0);
+        });
+        TaskWriteBehindQueue crashed = create(stuck, 10, 100, Duration.ZERO, 10000);
+        crashed.afterSingletonsInstantiated();
+        Task good = crashed.accept(new Task("Good", null, null));
+        Task poison = crashed.accept(new Task("Poison", null, null));
+
+        TaskRepository repository = mock(TaskRepository.class);
+        List<Task> recovered = new ArrayList<>();
+        when(repository.insertBatch(anyList())).thenAnswer(call -> {
+            List<Task> batch = call.getArgument(0);
+            if (batch.stream().anyMatch(task -> task.getTitle().equals("Poison"))) {
+                throw new DataIntegrityViolationException("Value too long");
+            }
+            recovered.addAll(batch);
+            return batch;
+        });
+        start(repository, 10, Duration.ZERO);
+
+        assertEquals(List.of(good.getId()), recovered.stream().map(Task::getId).toList());
+        String deadLetters = Files.readString(directory.resolve("tasks.rejected"));
+        assertTrue(deadLetters.contains(poison.getId().toString()));
+        assertTrue(deadLetters.contains("Value too long"));
+        assertFalse(Files.exists(directory.resolve("tasks.journal.1")));
+        never.countDown();
+    }
+
+    @Test
+    @DisplayName("Should delete a journal segment once its tasks are inserted while later ones are still pending")
+    void testJournalSegmentsAreDeleted() throws Exception {
+        TaskRepository repository = mock(TaskRepository.class);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch hold = new CountDownLatch(1);
+        when(repository.insertBatch(anyList())).thenAnswer(call -> {
+            List<Task> batch = call.getArgument(0);
+            gate.await();
+            if (batch.get(0).getTitle().equals("Hold")) {
+                hold.await();
+            }
+            return batch;
+        });
+        // One task per batch and two per segment: segment 1 gets First and Second, segment 2 Third and Hold
+        TaskWriteBehindQueue queue = start(repository, 10, 1, Duration.ZERO, 2);
+        for (String title : List.of("First", "Second", "Third", "Hold", "Fifth")) {
+            queue.accept(new Task(title, null, null));
+        }
+        Path firstSegment = directory.resolve("tasks.journal.1");
+        Path secondSegment = directory.resolve("tasks.journal.2");
+        assertTrue(Files.exists(firstSegment));
+        assertTrue(Files.exists(secondSegment));
+
+        gate.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.exists(firstSegment) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(firstSegment));
+        assertTrue(Files.exists(secondSegment));
+        assertEquals(2, queue.size());
+
+        hold.countDown();
+        Path journal = directory.resolve("tasks.journal");
+        while ((queue.size() > 0 || Files.exists(secondSegment) || Files.size(journal) > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(secondSegment));
+        assertEquals(0, Files.size(journal));
+    }
+}